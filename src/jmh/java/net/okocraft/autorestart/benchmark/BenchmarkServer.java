@@ -0,0 +1,72 @@
+package net.okocraft.autorestart.benchmark;
+
+import net.okocraft.autorestart.AutoRestartPlugin;
+import net.okocraft.autorestart.Simulation;
+import org.bukkit.configuration.file.YamlConfiguration;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.Comparator;
+import java.util.logging.Level;
+import java.util.stream.Stream;
+
+/**
+ * The plugin started on a {@link Simulation} from a config built in memory,
+ * so the benchmarks run the same code as a server but without one.
+ */
+final class BenchmarkServer {
+
+    private static final Instant ORIGIN = Instant.parse("2020-03-02T00:00:00Z");
+
+    private final Path dataFolder;
+    private final Simulation simulation;
+
+    BenchmarkServer(@NotNull YamlConfiguration config, int players) throws IOException {
+        dataFolder = Files.createTempDirectory("autorestart-benchmark");
+        simulation = new Simulation(dataFolder, ORIGIN);
+
+        simulation.writeConfig(config);
+        simulation.writeMessages(messages());
+        simulation.start();
+
+        // Scheduling and cancelling a restart logs a line, which would otherwise be most of what is measured.
+        simulation.getPlugin().getLogger().setLevel(Level.WARNING);
+        simulation.getServer().stopRecording();
+
+        for (int i = 0; i < players; i++) {
+            simulation.getServer().addPlayer("en_us");
+        }
+    }
+
+    @NotNull
+    static YamlConfiguration messages() {
+        YamlConfiguration messages = new YamlConfiguration();
+        messages.set("prefix", "&8[&6AutoRestart&8]&7 ");
+        messages.set("restart.countdown.message", "&cThe server will restart in %time% seconds. %reason%");
+        messages.set("restart.countdown.bossbar", "&eThe server will restart in %time% seconds %reason%");
+        return messages;
+    }
+
+    @NotNull
+    Simulation getSimulation() {
+        return simulation;
+    }
+
+    @NotNull
+    AutoRestartPlugin getPlugin() {
+        return simulation.getPlugin();
+    }
+
+    void close() throws IOException {
+        simulation.stop();
+
+        try (Stream<Path> files = Files.walk(dataFolder)) {
+            for (Path file : (Iterable<Path>) files.sorted(Comparator.reverseOrder())::iterator) {
+                Files.delete(file);
+            }
+        }
+    }
+}
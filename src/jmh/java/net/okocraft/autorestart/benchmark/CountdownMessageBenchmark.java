@@ -0,0 +1,102 @@
+package net.okocraft.autorestart.benchmark;
+
+import net.okocraft.autorestart.AutoRestartPlugin;
+import net.okocraft.autorestart.Simulation;
+import net.okocraft.autorestart.config.MessageConfig;
+import net.okocraft.autorestart.config.MessageTemplate;
+import net.okocraft.autorestart.tasks.CountdownFrames;
+import org.bukkit.ChatColor;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CountdownMessageBenchmark {
+
+    private static final String BAR_TITLE_PATH = "restart.countdown.bossbar";
+    private static final String BAR_TITLE_DEFAULT = "&eThe server will restart in %time% seconds";
+    private static final int NOTICE_TIME = 600;
+
+    private BenchmarkServer server;
+    private MessageConfig messageConfig;
+    private String locale;
+    private String rawReason;
+    private String reason;
+    private List<Long> secondsToBroadcast;
+    private CountdownFrames frames;
+    private long remaining;
+
+    @Setup
+    public void setup() throws IOException {
+        server = new BenchmarkServer(Simulation.config(), 0);
+
+        AutoRestartPlugin plugin = server.getPlugin();
+        messageConfig = plugin.getMessageConfig();
+        locale = messageConfig.resolveLocale(null);
+        rawReason = messageConfig.getScheduledRestartReason();
+        reason = messageConfig.getFormattedReason(locale, rawReason);
+        secondsToBroadcast = plugin.getGeneralConfig().getSecondsToBroadcast();
+        frames = CountdownFrames.render(messageConfig, rawReason, NOTICE_TIME, secondsToBroadcast);
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        server.close();
+    }
+
+    private long nextSecond() {
+        remaining = remaining <= 1 ? NOTICE_TIME : remaining - 1;
+        return remaining;
+    }
+
+    @Benchmark
+    public String replaceChain() {
+        // The bar title BossBarTimer got every second from MessageConfig#getCountdownBarTitle
+        // before the templates were compiled.
+        return ChatColor.translateAlternateColorCodes('&', messageConfig.getString(BAR_TITLE_PATH, BAR_TITLE_DEFAULT)
+                .replace("%time%", String.valueOf(nextSecond()))
+                .replace("%reason%", reason));
+    }
+
+    @Benchmark
+    public String compiledTemplate() {
+        return messageConfig.getCountdownBarTitle(locale, nextSecond(), reason);
+    }
+
+    @Benchmark
+    public String preRenderedFrame() {
+        return frames.getBarTitle(locale, nextSecond());
+    }
+
+    @Benchmark
+    public String countdownMessage() {
+        return frames.getCountdownMessage(locale, nextSecond());
+    }
+
+    @Benchmark
+    public CountdownFrames renderFrames() {
+        return CountdownFrames.render(messageConfig, rawReason, NOTICE_TIME, secondsToBroadcast);
+    }
+
+    @Benchmark
+    public MessageTemplate compile() {
+        return MessageTemplate.compile(messageConfig.getString(BAR_TITLE_PATH, BAR_TITLE_DEFAULT), "%time%", "%reason%");
+    }
+}
@@ -0,0 +1,101 @@
+package net.okocraft.autorestart.benchmark;
+
+import net.okocraft.autorestart.AutoRestartPlugin;
+import net.okocraft.autorestart.Simulation;
+import net.okocraft.autorestart.config.GeneralConfig;
+import net.okocraft.autorestart.display.ChatChannel;
+import net.okocraft.autorestart.tasks.CountdownFrames;
+import org.bukkit.configuration.file.YamlConfiguration;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CountdownTickBenchmark {
+
+    private static final List<Long> SECONDS_TO_BROADCAST = List.of(1L, 2L, 3L, 4L, 5L, 10L, 30L, 60L);
+    private static final int NOTICE_TIME = 60;
+
+    @Param({"0", "100"})
+    public int players;
+
+    private BenchmarkServer server;
+    private AutoRestartPlugin plugin;
+    private GeneralConfig generalConfig;
+    private ChatChannel chat;
+    private long remaining;
+
+    @Setup
+    public void setup() throws IOException {
+        YamlConfiguration config = Simulation.config();
+        config.set("restart.seconds-to-broadcast", SECONDS_TO_BROADCAST);
+
+        server = new BenchmarkServer(config, players);
+        plugin = server.getPlugin();
+        generalConfig = plugin.getGeneralConfig();
+
+        chat = new ChatChannel(plugin);
+        chat.start(CountdownFrames.render(plugin.getMessageConfig(), "Benchmark", NOTICE_TIME,
+                generalConfig.getSecondsToBroadcast()), NOTICE_TIME);
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        server.close();
+    }
+
+    private long nextSecond() {
+        remaining = remaining <= 1 ? NOTICE_TIME : remaining - 1;
+        return remaining;
+    }
+
+    @Benchmark
+    public boolean configListLookup() {
+        // The broadcast check CountdownTask did every second with GeneralConfig#getSecondsToBroadcast.
+        return generalConfig.getLongList("restart.seconds-to-broadcast", SECONDS_TO_BROADCAST).contains(nextSecond());
+    }
+
+    @Benchmark
+    public boolean isBroadcastSecond() {
+        return generalConfig.getSettings().isBroadcastSecond(nextSecond());
+    }
+
+    @Benchmark
+    public void chatUpdate() {
+        chat.update(nextSecond());
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(NOTICE_TIME - 1)
+    public void countdown() {
+        // Every second of a countdown, from the CountdownTask tick to the display update on the main thread,
+        // stopping one second short of the restart.
+        plugin.scheduleTriggeredRestart(NOTICE_TIME, "Benchmark");
+
+        for (int i = 1; i < NOTICE_TIME; i++) {
+            server.getSimulation().skip(Duration.ofSeconds(1));
+        }
+
+        plugin.cancelRestarting();
+    }
+}
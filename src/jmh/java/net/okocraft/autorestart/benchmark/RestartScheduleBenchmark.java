@@ -0,0 +1,86 @@
+package net.okocraft.autorestart.benchmark;
+
+import net.okocraft.autorestart.Simulation;
+import net.okocraft.autorestart.config.GeneralConfig;
+import net.okocraft.autorestart.schedule.RestartSchedule;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Logger;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RestartScheduleBenchmark {
+
+    private BenchmarkServer server;
+    private GeneralConfig generalConfig;
+    private Logger logger;
+
+    @Setup
+    public void setup() throws IOException {
+        server = new BenchmarkServer(Simulation.config("00:00", "06:00", "12:00", "18:00"), 0);
+        generalConfig = server.getPlugin().getGeneralConfig();
+        logger = server.getPlugin().getLogger();
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        server.close();
+    }
+
+    @Benchmark
+    public LocalDateTime parseEveryCall() {
+        // The lookup GeneralConfig#getNextAutoRestartTime did before the schedule was compiled.
+        DateTimeFormatter formatter = DateTimeFormatter.ofPattern("HH:mm");
+
+        Set<Long> durations = new HashSet<>();
+        LocalDateTime now = LocalDateTime.now().withNano(0);
+
+        for (String strTime : generalConfig.getStringList("restart.auto.time")) {
+            LocalTime time = LocalTime.parse(strTime, formatter).withSecond(0).withNano(0);
+
+            long duration = Duration.between(now, time.atDate(now.toLocalDate())).getSeconds();
+            if (duration < 1) {
+                duration += 86400;
+            }
+
+            durations.add(duration);
+        }
+
+        long nextRestartSeconds = durations.stream().sorted().findFirst().orElse(0L);
+        return nextRestartSeconds != 0 ? now.plusSeconds(nextRestartSeconds) : null;
+    }
+
+    @Benchmark
+    public ZonedDateTime compiledSchedule() {
+        return generalConfig.getNextAutoRestartTime();
+    }
+
+    @Benchmark
+    public RestartSchedule compile() {
+        return RestartSchedule.compile(generalConfig.getSettings().getAutoRestartTimes(), "UTC", List.of(), logger);
+    }
+}
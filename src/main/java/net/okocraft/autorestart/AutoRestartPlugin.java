@@ -1,37 +1,89 @@
 package net.okocraft.autorestart;
 
 import net.okocraft.autorestart.command.AutoRestartCommand;
+import net.okocraft.autorestart.config.ConfigWatcher;
 import net.okocraft.autorestart.config.GeneralConfig;
+import net.okocraft.autorestart.config.GeneralSettings;
 import net.okocraft.autorestart.config.MessageConfig;
+import net.okocraft.autorestart.coordination.RestartCoordinator;
+import net.okocraft.autorestart.display.CountdownDisplay;
+import net.okocraft.autorestart.lifecycle.RestartLifecycle;
+import net.okocraft.autorestart.lifecycle.RestartState;
+import net.okocraft.autorestart.metrics.RestartMetrics;
+import net.okocraft.autorestart.monitor.HeapTrendMonitor;
+import net.okocraft.autorestart.monitor.PlayerCountTracker;
+import net.okocraft.autorestart.monitor.TickHealthMonitor;
+import net.okocraft.autorestart.scheduler.ExecutorTaskScheduler;
+import net.okocraft.autorestart.scheduler.TaskScheduler;
+import net.okocraft.autorestart.storage.RestartHistory;
+import net.okocraft.autorestart.storage.ScheduleStore;
+import net.okocraft.autorestart.tasks.CountdownFrames;
 import net.okocraft.autorestart.tasks.CountdownTask;
+import net.okocraft.autorestart.tasks.PlayerAwareRestart;
+import net.okocraft.autorestart.tasks.TaskRegistry;
+import net.okocraft.autorestart.tasks.Timeline;
 import net.okocraft.autorestart.timer.BossBarTimer;
+import net.okocraft.autorestart.warmup.LoginThrottle;
 import org.bukkit.command.PluginCommand;
+import org.bukkit.plugin.PluginDescriptionFile;
 import org.bukkit.plugin.java.JavaPlugin;
+import org.bukkit.plugin.java.JavaPluginLoader;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
+import java.io.File;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Paths;
 import java.time.Duration;
-import java.time.LocalDateTime;
+import java.time.Instant;
+import java.time.ZonedDateTime;
 import java.time.format.DateTimeFormatter;
-import java.util.HashSet;
+import java.util.Objects;
 import java.util.Optional;
-import java.util.Set;
-import java.util.concurrent.Executors;
-import java.util.concurrent.ScheduledExecutorService;
-import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
 
 public class AutoRestartPlugin extends JavaPlugin {
 
-    private final ScheduledExecutorService scheduler =
-            Executors.newSingleThreadScheduledExecutor(r -> new Thread(r, "AutoRestart-Scheduler"));
+    private final TaskScheduler scheduler;
     private final BossBarTimer timer = new BossBarTimer(this);
-    private final Set<ScheduledFuture<?>> tasks = new HashSet<>();
+    private final CountdownDisplay display = new CountdownDisplay(this, timer);
+    private final TaskRegistry tasks;
+    private final TickHealthMonitor healthMonitor = new TickHealthMonitor(this);
+    private final HeapTrendMonitor heapMonitor = new HeapTrendMonitor(this);
+    private final PlayerCountTracker playerCountTracker = new PlayerCountTracker(this);
+    private final RestartMetrics metrics = new RestartMetrics();
+    private final RestartLifecycle lifecycle = new RestartLifecycle(this);
+    private final ConfigWatcher configWatcher = new ConfigWatcher(this);
+    private final LoginThrottle loginThrottle = new LoginThrottle(this);
 
     private GeneralConfig generalConfig;
     private MessageConfig messageConfig;
-    private LocalDateTime restartTime;
+    private ScheduleStore scheduleStore;
+    private RestartCoordinator coordinator;
+    private RestartHistory restartHistory;
+    private RestartHistory.Marker restartMarker;
     private String restartReason;
+    private PlayerAwareRestart playerAwareRestart;
+    private CountdownTask countdown;
+    private boolean autoScheduled;
+    private ZonedDateTime nextAutoRestartTime;
+    private int scheduleGeneration;
+    private Thread shutdownHook;
+
+    public AutoRestartPlugin() {
+        this.scheduler = new ExecutorTaskScheduler("AutoRestart-Scheduler");
+        this.tasks = new TaskRegistry(scheduler);
+    }
+
+    /**
+     * Creates the plugin outside of a plugin class loader, for tests and benchmarks.
+     */
+    protected AutoRestartPlugin(@NotNull JavaPluginLoader loader, @NotNull PluginDescriptionFile description,
+                                @NotNull File dataFolder, @NotNull File file, @NotNull TaskScheduler scheduler) {
+        super(loader, description, dataFolder, file);
+        this.scheduler = scheduler;
+        this.tasks = new TaskRegistry(scheduler);
+    }
 
     @Override
     public void onLoad() {
@@ -41,6 +93,12 @@ public class AutoRestartPlugin extends JavaPlugin {
         messageConfig = new MessageConfig(this);
         getLogger().info("Loaded config.yml and messages.yml");
 
+        scheduleStore = new ScheduleStore(getDataFolder().toPath().resolve("schedule.properties"), scheduler, getLogger());
+        coordinator = createCoordinator();
+
+        restartHistory = new RestartHistory(getDataFolder().toPath(), scheduler, getLogger());
+        restartMarker = restartHistory.consumeMarker();
+
         getLogger().info("Loaded plugin in " + (getTimeMillis() - startTime) + "ms.");
     }
 
@@ -48,10 +106,31 @@ public class AutoRestartPlugin extends JavaPlugin {
     public void onEnable() {
         long startTime = getTimeMillis();
 
-        scheduleRestarting();
+        getServer().getPluginManager().registerEvents(timer, this);
+        getServer().getPluginManager().registerEvents(display, this);
+        healthMonitor.start();
+        heapMonitor.start();
+        playerCountTracker.start();
+
+        if (!restoreRestarting()) {
+            scheduleRestarting();
+        }
 
         Optional.ofNullable(getCommand("autorestart")).ifPresent(this::registerCommand);
 
+        metrics.register(getLogger());
+        configWatcher.start();
+
+        shutdownHook = new Thread(this::logExitTime, "AutoRestart-ShutdownTimer");
+        Runtime.getRuntime().addShutdownHook(shutdownHook);
+
+        if (restartMarker != null) {
+            // Only after a restart, a /reload does not bring every player back at once.
+            loginThrottle.start();
+            recordStartup(restartMarker, getTimeMillis());
+            restartMarker = null;
+        }
+
         getLogger().info("Enabled plugin in " + (getTimeMillis() - startTime) + "ms.");
     }
 
@@ -59,10 +138,26 @@ public class AutoRestartPlugin extends JavaPlugin {
     public void onDisable() {
         long startTime = getTimeMillis();
 
+        long sinceRestart = metrics.getNanosSinceRestartDispatched();
+        if (sinceRestart != -1L) {
+            getLogger().info("Disabling " + TimeUnit.NANOSECONDS.toMillis(sinceRestart) + "ms after the restart command.");
+        }
+
+        configWatcher.stop();
+        loginThrottle.stop();
         cancelAllTask();
+        healthMonitor.stop();
+        heapMonitor.stop();
+        scheduleStore.flush();
+        metrics.unregister();
+
+        // Kept through a restart, the time to the exit is only known once the process is exiting.
+        if (lifecycle.getState() != RestartState.RESTARTING) {
+            removeShutdownHook();
+        }
 
         if (!scheduler.isShutdown()) {
-            scheduler.shutdownNow();
+            scheduler.shutdown();
         }
 
         getLogger().info("Disabled plugin in " + (getTimeMillis() - startTime) + "ms.");
@@ -74,38 +169,96 @@ public class AutoRestartPlugin extends JavaPlugin {
         long startTime = getTimeMillis();
         getLogger().info("Reloading...");
 
-        cancelAllTask();
+        applyChanges(true, true);
 
-        generalConfig.reload();
-        getLogger().info("config.yml was reloaded.");
+        getLogger().info("Reloaded plugin in " + (getTimeMillis() - startTime) + "ms.");
+    }
 
-        messageConfig.reload();
-        getLogger().info("message.yml was reloaded.");
+    public void applyChanges(boolean general, boolean messages) {
+        GeneralSettings previous = generalConfig.getSettings();
 
-        scheduleRestarting();
+        if (general) {
+            if (generalConfig.load()) {
+                getLogger().info("config.yml was reloaded.");
+            } else {
+                getLogger().warning("Keeping the current settings of config.yml.");
+            }
+        }
 
-        getLogger().info("Reloaded plugin in " + (getTimeMillis() - startTime) + "ms.");
+        if (messages) {
+            if (messageConfig.load()) {
+                getLogger().info("message.yml was reloaded.");
+            } else {
+                getLogger().warning("Keeping the current messages of message.yml.");
+                messages = false;
+            }
+        }
+
+        GeneralSettings current = generalConfig.getSettings();
+
+        if (current.isHealthChanged(previous)) {
+            healthMonitor.start();
+        }
+
+        if (current.isMemoryChanged(previous)) {
+            heapMonitor.start();
+        }
+
+        if (current.isHotReloadEnabled() != previous.isHotReloadEnabled()) {
+            configWatcher.start();
+        }
+
+        boolean coordinationChanged = current.isCoordinationChanged(previous);
+
+        if (coordinationChanged) {
+            releaseSlot();
+            coordinator = createCoordinator();
+        }
+
+        RestartState state = lifecycle.getState();
+
+        if (state.isCommitted()) {
+            return;
+        }
+
+        // A restart scheduled by hand or by a trigger is kept whatever the auto restart settings are.
+        boolean auto = autoScheduled || !state.isPending();
+
+        if (auto && (coordinationChanged || isAutoRestartChanged(previous, current))) {
+            scheduleRestarting();
+        } else if (countdown != null && current.isCountdownChanged(previous)) {
+            restartCountdown();
+        } else if (countdown != null && (messages || current.isDisplayChanged(previous))) {
+            refreshCountdown();
+        }
     }
 
     @NotNull
     public GeneralConfig getGeneralConfig() {
-        checkRunning();
         return generalConfig;
     }
 
     @NotNull
     public MessageConfig getMessageConfig() {
-        checkRunning();
         return messageConfig;
     }
 
     public BossBarTimer getTimer() {
-        checkRunning();
         return timer;
     }
 
+    @NotNull
+    public CountdownDisplay getDisplay() {
+        return display;
+    }
+
+    @NotNull
+    public RestartLifecycle getLifecycle() {
+        return lifecycle;
+    }
+
     public void checkRunning() {
-        if (getServer().getPluginManager().getPlugin("AutoRestart") == null) {
+        if (!isEnabled()) {
             throw new IllegalStateException("AutoRestart is not enabled.");
         }
     }
@@ -113,37 +266,78 @@ public class AutoRestartPlugin extends JavaPlugin {
     public void scheduleRestarting(long seconds, @Nullable String reason) {
         cancelAllTask();
 
-        CountdownTask task = new CountdownTask(this, seconds);
+        ZonedDateTime restartTime = ZonedDateTime.now(scheduler.getClock()).plusSeconds(seconds);
+        setRestartReason(reason);
+        lifecycle.schedule(restartTime, reason);
 
-        scheduleTask(task, 0L);
-
-        restartTime = LocalDateTime.now().plusSeconds(seconds);
-        restartReason = reason;
+        startCountdown(scheduler.nanoTime() + TimeUnit.SECONDS.toNanos(seconds), seconds, seconds);
+        scheduleStore.save(restartTime.toInstant(), reason);
 
         getLogger().info("Restart scheduled: " + getRestartTimeAsString());
     }
 
+    public void scheduleTriggeredRestart(long seconds, @NotNull String reason) {
+        cancelAllTask();
+        // Only restarts scheduled by command survive a restart, a trigger fires again if its cause is still there.
+        scheduleStore.clear();
+
+        // Triggers take the same path as the auto restart, so they are staggered with the other servers too.
+        scheduleAutoRestart(ZonedDateTime.now(scheduler.getClock()).plusSeconds(seconds), reason, seconds, false);
+    }
+
     public void scheduleRestarting() {
         cancelAllTask();
-        restartTime = generalConfig.getNextAutoRestartTime();
-        restartReason = messageConfig.getScheduledRestartReason();
+        scheduleStore.clear();
+        ZonedDateTime restartTime = generalConfig.getNextAutoRestartTime();
+        String reason = messageConfig.getScheduledRestartReason();
+        setRestartReason(reason);
 
         if (restartTime == null) {
+            releaseSlot();
             getLogger().info("Auto restart is not scheduled.");
         } else {
-            Duration duration = Duration.between(LocalDateTime.now(), restartTime);
+            autoScheduled = true;
+            nextAutoRestartTime = restartTime;
+
+            scheduleAutoRestart(restartTime, reason, generalConfig.getDefaultNoticeTime(),
+                    generalConfig.getSettings().isPlayerAwareEnabled());
+        }
+    }
 
-            long noticeTime = Math.min(duration.getSeconds(), generalConfig.getDefaultNoticeTime());
+    @Nullable
+    public ZonedDateTime getRestartTime() {
+        return lifecycle.getRestartTime();
+    }
 
-            CountdownTask task = new CountdownTask(this, noticeTime);
-            scheduleTask(task, duration.getSeconds());
+    @NotNull
+    public PlayerCountTracker getPlayerCountTracker() {
+        return playerCountTracker;
+    }
 
-            getLogger().info("Auto restart scheduled: " + getRestartTimeAsString());
-        }
+    @NotNull
+    public TaskScheduler getTaskScheduler() {
+        return scheduler;
+    }
+
+    @NotNull
+    public RestartMetrics getMetrics() {
+        return metrics;
+    }
+
+    @NotNull
+    public TickHealthMonitor getHealthMonitor() {
+        return healthMonitor;
+    }
+
+    @NotNull
+    public HeapTrendMonitor getHeapMonitor() {
+        return heapMonitor;
     }
 
     @NotNull
     public String getRestartTimeAsString() {
+        ZonedDateTime restartTime = lifecycle.getRestartTime();
+
         if (restartTime == null) {
             return "";
         } else {
@@ -151,44 +345,303 @@ public class AutoRestartPlugin extends JavaPlugin {
         }
     }
 
+    @Nullable
+    public String getRestartReason() {
+        return restartReason;
+    }
+
     @NotNull
-    public String getFormattedRestartReason() {
-        if (restartReason != null) {
-            return messageConfig.getFormattedReason(restartReason);
-        } else {
-            return "";
-        }
+    public TaskRegistry.Handle scheduleTask(@NotNull Runnable task, long seconds) {
+        return tasks.schedule(task, seconds, TimeUnit.SECONDS);
     }
 
-    public void scheduleTask(@NotNull Runnable task, long seconds) {
-        tasks.add(scheduler.schedule(task, seconds, TimeUnit.SECONDS));
+    @NotNull
+    public TaskRegistry.Handle scheduleTaskAtFixedRate(@NotNull Runnable task, long initialDelayNanos, long periodNanos) {
+        return tasks.scheduleAtFixedRate(task, initialDelayNanos, periodNanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void cancelRestarting() {
+        cancelAllTask();
+        scheduleStore.clear();
+        releaseSlot();
+    }
+
+    @NotNull
+    public ScheduleStore getScheduleStore() {
+        return scheduleStore;
+    }
+
+    @NotNull
+    public RestartHistory getRestartHistory() {
+        return restartHistory;
     }
 
     public void cancelAllTask() {
-        if (0 < tasks.size()) {
-            tasks.forEach(this::cancelTask);
+        int cancelled = tasks.cancelAll();
+
+        if (playerAwareRestart != null) {
+            playerAwareRestart.cancel();
+            playerAwareRestart = null;
+        }
+
+        if (countdown != null) {
+            countdown.cancel();
+            countdown = null;
+        }
 
-            tasks.clear();
+        autoScheduled = false;
+        nextAutoRestartTime = null;
+        scheduleGeneration++;
 
-            if (timer.isRunning()) {
-                timer.stop();
+        if (0 < cancelled || lifecycle.getState().isPending()) {
+            if (display.isRunning()) {
+                display.stop();
             }
 
-            restartTime = null;
-            restartReason = null;
+            // While disabling for a restart, the state is kept for the shutdown hook.
+            if (isEnabled() || lifecycle.getState() != RestartState.RESTARTING) {
+                lifecycle.reset();
+                setRestartReason(null);
 
-            getLogger().info("Restart task was cancelled.");
+                getLogger().info("Restart task was cancelled.");
+            }
         }
     }
 
-    private void registerCommand(@NotNull PluginCommand command) {
-        command.setExecutor(new AutoRestartCommand(this));
+    private void logExitTime() {
+        if (lifecycle.getState() != RestartState.RESTARTING) {
+            return;
+        }
+
+        long elapsed = TimeUnit.NANOSECONDS.toMillis(metrics.getNanosSinceRestartDispatched());
+        getLogger().info("Process is exiting " + elapsed + "ms after the restart command.");
+        restartHistory.writeExitTime(elapsed);
+    }
+
+    private void removeShutdownHook() {
+        if (shutdownHook == null) {
+            return;
+        }
+
+        try {
+            Runtime.getRuntime().removeShutdownHook(shutdownHook);
+        } catch (IllegalStateException ignored) {
+            // The JVM is already shutting down and runs the hook anyway.
+        }
+
+        shutdownHook = null;
+    }
+
+    private boolean restoreRestarting() {
+        ScheduleStore.PendingRestart pending = scheduleStore.load();
+
+        if (pending == null) {
+            return false;
+        }
+
+        long seconds = Duration.between(scheduler.getClock().instant(), pending.getTime()).getSeconds();
+
+        if (seconds < 1) {
+            scheduleStore.clear();
+            return false;
+        }
+
+        getLogger().info("Restoring the pending restart.");
+        scheduleRestarting(seconds, pending.getReason());
+        return true;
     }
 
-    private void cancelTask(@NotNull ScheduledFuture<?> task) {
-        if (!task.isDone() && !task.isCancelled()) {
-            task.cancel(true);
+    private void scheduleAutoRestart(@NotNull ZonedDateTime desired, @NotNull String reason,
+                                     long maxNoticeTime, boolean playerAware) {
+        setRestartReason(reason);
+        lifecycle.schedule(desired, reason);
+
+        RestartCoordinator coordinator = this.coordinator;
+
+        if (coordinator == null) {
+            startAutoRestart(desired, maxNoticeTime, playerAware);
+            return;
+        }
+
+        // Claiming locks a shared file, which may take a while, so it is done off the main thread.
+        // Anything scheduled or cancelled in the meantime bumps the generation and wins over this claim.
+        int generation = scheduleGeneration;
+
+        scheduler.execute(() -> {
+            Instant claimed = coordinator.claim(desired.toInstant());
+
+            if (!isEnabled()) {
+                return;
+            }
+
+            getServer().getScheduler().runTask(this, () -> {
+                if (generation != scheduleGeneration) {
+                    return;
+                }
+
+                ZonedDateTime restartTime = claimed.atZone(desired.getZone());
+
+                if (!restartTime.isEqual(desired)) {
+                    getLogger().info("Auto restart was moved back by "
+                            + Duration.between(desired, restartTime).getSeconds() + " seconds to stagger the restarts.");
+                    lifecycle.schedule(restartTime, reason);
+                }
+
+                startAutoRestart(restartTime, maxNoticeTime, playerAware);
+            });
+        });
+    }
+
+    private void startAutoRestart(@NotNull ZonedDateTime restartTime, long maxNoticeTime, boolean playerAware) {
+        Duration duration = Duration.between(ZonedDateTime.now(scheduler.getClock()), restartTime);
+        long seconds = Math.max(0L, duration.getSeconds());
+        long noticeTime = Math.min(seconds, maxNoticeTime);
+
+        if (playerAware) {
+            playerAwareRestart = new PlayerAwareRestart(this, playerCountTracker, noticeTime, this::firePlayerAwareRestart);
+            playerAwareRestart.start(seconds);
+        } else {
+            startCountdown(scheduler.nanoTime() + Math.max(0L, duration.toNanos()), seconds, noticeTime);
         }
+
+        getLogger().info("Auto restart scheduled: " + getRestartTimeAsString());
+    }
+
+    private void firePlayerAwareRestart(long noticeTime) {
+        // Still the auto restart: it keeps its slot and is not persisted, only the countdown starts now.
+        playerAwareRestart = null;
+
+        ZonedDateTime restartTime = ZonedDateTime.now(scheduler.getClock()).plusSeconds(noticeTime);
+        lifecycle.schedule(restartTime, lifecycle.getReason());
+        startCountdown(scheduler.nanoTime() + TimeUnit.SECONDS.toNanos(noticeTime), noticeTime, noticeTime);
+
+        getLogger().info("Auto restart scheduled: " + getRestartTimeAsString());
+    }
+
+    private void releaseSlot() {
+        RestartCoordinator coordinator = this.coordinator;
+
+        if (coordinator != null && !scheduler.isShutdown()) {
+            scheduler.execute(coordinator::release);
+        }
+    }
+
+    @Nullable
+    private RestartCoordinator createCoordinator() {
+        GeneralSettings settings = generalConfig.getSettings();
+
+        if (!settings.isCoordinationEnabled()) {
+            return null;
+        }
+
+        String serverId = settings.getCoordinationServerId();
+        if (serverId.isEmpty()) {
+            serverId = "port-" + getServer().getPort();
+        }
+
+        return new RestartCoordinator(
+                Paths.get(settings.getCoordinationDirectory()),
+                serverId,
+                settings.getCoordinationMaxConcurrent(),
+                Duration.ofSeconds(settings.getCoordinationSlotLength()),
+                Duration.ofSeconds(settings.getCoordinationMaxShift()),
+                scheduler.getClock(),
+                getLogger()
+        );
+    }
+
+    private void setRestartReason(@Nullable String reason) {
+        restartReason = reason;
+    }
+
+    private void startCountdown(long deadline, long seconds, long noticeTime) {
+        Timeline timeline = Timeline.compile(generalConfig.getSettings().getTimeline(), seconds);
+
+        countdown = new CountdownTask(this, renderFrames(noticeTime), timeline, deadline);
+        countdown.start(noticeTime);
+    }
+
+    private void restartCountdown() {
+        long remaining = countdown.getRemainingSeconds();
+
+        if (remaining < 1) {
+            return;
+        }
+
+        long noticeTime = autoScheduled
+                ? Math.min(remaining, generalConfig.getDefaultNoticeTime())
+                : countdown.getNoticeTime();
+
+        if (lifecycle.getState() == RestartState.COUNTDOWN) {
+            // Already announced, so the new countdown carries on from the current second.
+            noticeTime = Math.max(noticeTime, remaining);
+        }
+
+        long deadline = countdown.getDeadline();
+        countdown.cancel();
+        startCountdown(deadline, remaining, noticeTime);
+
+        getLogger().info("The countdown was restarted with the new settings.");
+    }
+
+    private void refreshCountdown() {
+        setRestartReason(lifecycle.getReason());
+
+        CountdownFrames frames = renderFrames(countdown.getNoticeTime());
+        countdown.setFrames(frames);
+        display.refresh(frames, countdown.getRemainingSeconds());
+    }
+
+    @NotNull
+    private CountdownFrames renderFrames(long noticeTime) {
+        long start = scheduler.nanoTime();
+        CountdownFrames frames = CountdownFrames.render(
+                messageConfig, restartReason, noticeTime, generalConfig.getSecondsToBroadcast());
+        metrics.getFrameRender().record(scheduler.nanoTime() - start);
+        return frames;
+    }
+
+    private boolean isAutoRestartChanged(@NotNull GeneralSettings previous, @NotNull GeneralSettings current) {
+        if (current.isScheduleChanged(previous)
+                && !Objects.equals(generalConfig.getNextAutoRestartTime(), nextAutoRestartTime)) {
+            return true;
+        }
+
+        // A player-aware restart has not started its countdown yet, so it is simply set up again.
+        return playerAwareRestart != null
+                && (current.isPlayerAwareChanged(previous) || current.isCountdownChanged(previous));
+    }
+
+    private void recordStartup(@NotNull RestartHistory.Marker marker, long enabledAt) {
+        long restartedAt = marker.getRestartTime().toEpochMilli();
+        long jvmStartedAt = ManagementFactory.getRuntimeMXBean().getStartTime();
+
+        if (marker.getExitMillis() != -1L) {
+            // Measured by the previous process when it exited, it can only be reported now.
+            metrics.getShutdown().record(TimeUnit.MILLISECONDS.toNanos(marker.getExitMillis()));
+            getLogger().info("The previous process exited " + marker.getExitMillis() + "ms after the restart command.");
+        }
+
+        // Runs once the first tick after startup has completed.
+        getServer().getScheduler().runTaskLater(this, () -> {
+            long firstTickAt = getTimeMillis();
+            RestartHistory.Entry entry = new RestartHistory.Entry(
+                    marker.getRestartTime(),
+                    jvmStartedAt - restartedAt,
+                    enabledAt - jvmStartedAt,
+                    firstTickAt - enabledAt,
+                    firstTickAt - restartedAt
+            );
+
+            restartHistory.append(entry);
+
+            getLogger().info("Restart took " + entry.getDowntimeMillis() + "ms (shutdown: " + entry.getShutdownMillis()
+                    + "ms, startup: " + entry.getStartupMillis() + "ms, first tick: " + entry.getFirstTickMillis() + "ms).");
+        }, 1L);
+    }
+
+    private void registerCommand(@NotNull PluginCommand command) {
+        command.setExecutor(new AutoRestartCommand(this));
     }
 
     private long getTimeMillis() {
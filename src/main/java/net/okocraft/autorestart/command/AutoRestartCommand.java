@@ -1,6 +1,10 @@
 package net.okocraft.autorestart.command;
 
 import net.okocraft.autorestart.AutoRestartPlugin;
+import net.okocraft.autorestart.config.MessageConfig;
+import net.okocraft.autorestart.metrics.Histogram;
+import net.okocraft.autorestart.metrics.RestartMetrics;
+import net.okocraft.autorestart.storage.RestartHistory;
 import net.okocraft.autorestart.tasks.RestartTask;
 import org.bukkit.command.Command;
 import org.bukkit.command.CommandExecutor;
@@ -9,18 +13,24 @@ import org.bukkit.command.TabCompleter;
 import org.bukkit.util.StringUtil;
 import org.jetbrains.annotations.NotNull;
 
+import java.io.IOException;
+import java.time.Clock;
 import java.time.Duration;
 import java.time.LocalDate;
-import java.time.LocalDateTime;
 import java.time.LocalTime;
+import java.time.ZonedDateTime;
 import java.time.format.DateTimeFormatter;
 import java.time.format.DateTimeParseException;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.function.ToLongFunction;
+import java.util.logging.Level;
 
 public class AutoRestartCommand implements CommandExecutor, TabCompleter {
 
+    private static final int MAX_HISTORY_ENTRIES = 1000;
+
     private final AutoRestartPlugin plugin;
 
     public AutoRestartCommand(@NotNull AutoRestartPlugin plugin) {
@@ -41,6 +51,9 @@ public class AutoRestartCommand implements CommandExecutor, TabCompleter {
             case "check":
                 sendRestartTime(sender);
                 break;
+            case "history":
+                sendHistory(sender);
+                break;
             case "now":
                 restartNow(sender);
                 break;
@@ -53,6 +66,9 @@ public class AutoRestartCommand implements CommandExecutor, TabCompleter {
             case "restart":
                 scheduleRestartingSecond(sender, args);
                 break;
+            case "stats":
+                sendStats(sender);
+                break;
             case "time":
                 scheduleRestartingTime(sender, args);
                 break;
@@ -69,7 +85,7 @@ public class AutoRestartCommand implements CommandExecutor, TabCompleter {
         if (args.length == 1) {
             return StringUtil.copyPartialMatches(
                     args[0].toLowerCase(),
-                    List.of("cancel", "check", "help", "now", "reload", "reschedule", "restart", "time"),
+                    List.of("cancel", "check", "help", "history", "now", "reload", "reschedule", "restart", "stats", "time"),
                     new ArrayList<>()
             );
         } else {
@@ -79,7 +95,7 @@ public class AutoRestartCommand implements CommandExecutor, TabCompleter {
 
     private void cancelRestarting(@NotNull CommandSender sender) {
         if (checkPermission(sender, "autorestart.cancel")) {
-            plugin.cancelAllTask();
+            plugin.cancelRestarting();
             sender.sendMessage(plugin.getMessageConfig().getCancelRestarting());
         }
     }
@@ -140,7 +156,7 @@ public class AutoRestartCommand implements CommandExecutor, TabCompleter {
         String reason = 2 < args.length ? args[2] : null;
         String formattedReason = reason != null ? plugin.getMessageConfig().getFormattedReason(reason) : "";
 
-        if (!plugin.getGeneralConfig().getSecondsToBroadcast().contains(seconds)) {
+        if (!plugin.getGeneralConfig().getSettings().isBroadcastSecond(seconds)) {
             plugin.getServer().broadcastMessage(plugin.getMessageConfig().getRestartSecondMessage(seconds, formattedReason));
         }
 
@@ -152,22 +168,23 @@ public class AutoRestartCommand implements CommandExecutor, TabCompleter {
             return;
         }
 
-        LocalDateTime restartTime;
+        Clock clock = plugin.getTaskScheduler().getClock();
+        ZonedDateTime restartTime;
         if (args.length < 2) {
             restartTime = plugin.getGeneralConfig().getNextAutoRestartTime();
             restartTime = restartTime != null ? restartTime :
-                    LocalDateTime.now().plusSeconds(plugin.getGeneralConfig().getDefaultNoticeTime());
+                    ZonedDateTime.now(clock).plusSeconds(plugin.getGeneralConfig().getDefaultNoticeTime());
         } else {
             try {
                 LocalTime time = LocalTime.parse(args[1], DateTimeFormatter.ofPattern("HH:mm"));
-                restartTime = time.withSecond(0).withNano(0).atDate(LocalDate.now());
+                restartTime = time.withSecond(0).withNano(0).atDate(LocalDate.now(clock)).atZone(clock.getZone());
             } catch (DateTimeParseException e) {
                 sender.sendMessage(plugin.getMessageConfig().getInvalidArg(args[1]));
                 return;
             }
         }
 
-        long duration = Duration.between(LocalDateTime.now(), restartTime).getSeconds() + 1;
+        long duration = Duration.between(ZonedDateTime.now(clock), restartTime).getSeconds() + 1;
         if (duration < 1) {
             duration += 86400;
         }
@@ -177,7 +194,7 @@ public class AutoRestartCommand implements CommandExecutor, TabCompleter {
 
         plugin.scheduleRestarting(duration, reason);
 
-        if (!plugin.getGeneralConfig().getSecondsToBroadcast().contains(duration)) {
+        if (!plugin.getGeneralConfig().getSettings().isBroadcastSecond(duration)) {
             plugin.getServer().broadcastMessage(plugin.getMessageConfig().getRestartTimeMessage(formattedReason));
         }
     }
@@ -188,6 +205,105 @@ public class AutoRestartCommand implements CommandExecutor, TabCompleter {
         }
     }
 
+    private void sendStats(@NotNull CommandSender sender) {
+        if (!checkPermission(sender, "autorestart.stats")) {
+            return;
+        }
+
+        RestartMetrics metrics = plugin.getMetrics();
+        MessageConfig messages = plugin.getMessageConfig();
+
+        sender.sendMessage(messages.getStatsHeader());
+        sender.sendMessage(formatHistogram("Countdown tick jitter", metrics.getTickJitter()));
+        sender.sendMessage(formatHistogram("Frame render", metrics.getFrameRender()));
+        sender.sendMessage(formatHistogram("Main-thread dispatch", metrics.getDispatch()));
+        sender.sendMessage(formatHistogram("Commands before restart", metrics.getCommandsBefore()));
+        sender.sendMessage(formatHistogram("Kick", metrics.getKick()));
+        sender.sendMessage(formatHistogram("Restart command to exit", metrics.getShutdown()));
+        sender.sendMessage(messages.getStatsValue("Broadcasts", String.valueOf(metrics.getBroadcasts())));
+        sender.sendMessage(messages.getStatsValue("Restarts", String.valueOf(metrics.getRestarts())));
+
+        long heapSeconds = plugin.getHeapMonitor().getPredictedSeconds();
+        if (heapSeconds != -1L) {
+            sender.sendMessage(messages.getStatsValue("Heap ceiling in", heapSeconds + "s"));
+        }
+    }
+
+    private void sendHistory(@NotNull CommandSender sender) {
+        if (!checkPermission(sender, "autorestart.history")) {
+            return;
+        }
+
+        plugin.getTaskScheduler().execute(() -> {
+            List<RestartHistory.Entry> entries;
+
+            try {
+                entries = plugin.getRestartHistory().readRecent(MAX_HISTORY_ENTRIES);
+            } catch (IOException e) {
+                plugin.getLogger().log(Level.WARNING, "Could not read the restart history", e);
+                entries = List.of();
+            }
+
+            List<RestartHistory.Entry> result = entries;
+            plugin.getServer().getScheduler().runTask(plugin, () -> sendHistory(sender, result));
+        });
+    }
+
+    private void sendHistory(@NotNull CommandSender sender, @NotNull List<RestartHistory.Entry> entries) {
+        MessageConfig messages = plugin.getMessageConfig();
+
+        if (entries.isEmpty()) {
+            sender.sendMessage(messages.getHistoryEmpty());
+            return;
+        }
+
+        sender.sendMessage(messages.getHistoryHeader(entries.size()));
+        sender.sendMessage(formatHistory("Downtime", entries, RestartHistory.Entry::getDowntimeMillis));
+        sender.sendMessage(formatHistory("Shutdown", entries, RestartHistory.Entry::getShutdownMillis));
+        sender.sendMessage(formatHistory("JVM start to enable", entries, RestartHistory.Entry::getStartupMillis));
+        sender.sendMessage(formatHistory("Enable to first tick", entries, RestartHistory.Entry::getFirstTickMillis));
+    }
+
+    @NotNull
+    private String formatHistory(@NotNull String name, @NotNull List<RestartHistory.Entry> entries,
+                                 @NotNull ToLongFunction<RestartHistory.Entry> metric) {
+        long[] values = entries.stream().mapToLong(metric).sorted().toArray();
+
+        return plugin.getMessageConfig().getHistoryEntry(
+                name,
+                toSeconds(percentile(values, 0.5)),
+                toSeconds(percentile(values, 0.9)),
+                toSeconds(percentile(values, 0.99)),
+                toSeconds(values[values.length - 1])
+        );
+    }
+
+    private static long percentile(@NotNull long[] sorted, double percentile) {
+        int index = (int) Math.ceil(percentile * sorted.length) - 1;
+        return sorted[Math.max(0, index)];
+    }
+
+    @NotNull
+    private String toSeconds(long millis) {
+        return String.format("%.1f", millis / 1000.0);
+    }
+
+    @NotNull
+    private String formatHistogram(@NotNull String name, @NotNull Histogram histogram) {
+        return plugin.getMessageConfig().getStatsHistogram(
+                name,
+                histogram.getCount(),
+                toMillis(histogram.getMean()),
+                toMillis(histogram.getPercentile(0.99)),
+                toMillis(histogram.getMax())
+        );
+    }
+
+    @NotNull
+    private String toMillis(double nanos) {
+        return String.format("%.2f", nanos / 1_000_000);
+    }
+
     private boolean checkPermission(@NotNull CommandSender sender, @NotNull String perm) {
         if (sender.hasPermission(perm)) {
             return true;
@@ -0,0 +1,48 @@
+package net.okocraft.autorestart.config;
+
+import org.bukkit.configuration.InvalidConfigurationException;
+import org.bukkit.configuration.file.YamlConfiguration;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+final class ConfigFiles {
+
+    private ConfigFiles() {
+    }
+
+    /**
+     * Parses the file into a temporary configuration, so that a file saved in the middle of an edit
+     * is reported instead of being loaded as an empty one.
+     *
+     * @return the parsed configuration, or {@code null} if the file is missing, invalid or empty
+     */
+    @Nullable
+    static YamlConfiguration parse(@NotNull Path file, @NotNull Logger logger) {
+        if (!Files.isRegularFile(file)) {
+            logger.warning(file.getFileName() + " does not exist.");
+            return null;
+        }
+
+        YamlConfiguration yaml = new YamlConfiguration();
+
+        try {
+            yaml.load(file.toFile());
+        } catch (IOException | InvalidConfigurationException | RuntimeException e) {
+            logger.log(Level.WARNING, "Could not load " + file.getFileName(), e);
+            return null;
+        }
+
+        if (yaml.getKeys(false).isEmpty()) {
+            logger.warning(file.getFileName() + " is empty.");
+            return null;
+        }
+
+        return yaml;
+    }
+}
@@ -0,0 +1,241 @@
+package net.okocraft.autorestart.config;
+
+import net.okocraft.autorestart.AutoRestartPlugin;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.zip.CRC32;
+
+public class ConfigWatcher {
+
+    private static final String GENERAL_FILE = "config.yml";
+    private static final String MESSAGE_FILE = "message.yml";
+    private static final String LANGUAGES_DIRECTORY = "languages";
+
+    private final AutoRestartPlugin plugin;
+    private final Path directory;
+    private final Path languages;
+    private final Map<Path, Long> checksums = new HashMap<>();
+
+    private WatchService watchService;
+    private ScheduledFuture<?> pendingReload;
+    private boolean generalChanged;
+    private boolean messagesChanged;
+
+    public ConfigWatcher(@NotNull AutoRestartPlugin plugin) {
+        this.plugin = plugin;
+        this.directory = plugin.getDataFolder().toPath();
+        this.languages = directory.resolve(LANGUAGES_DIRECTORY);
+    }
+
+    public synchronized void start() {
+        stop();
+
+        if (!plugin.getGeneralConfig().getSettings().isHotReloadEnabled()) {
+            return;
+        }
+
+        try {
+            watchService = FileSystems.getDefault().newWatchService();
+            register(directory);
+
+            if (Files.isDirectory(languages)) {
+                register(languages);
+            }
+        } catch (IOException e) {
+            plugin.getLogger().log(Level.WARNING, "Could not watch " + directory + ", hot reload is disabled.", e);
+            stop();
+            return;
+        }
+
+        // Taken now so that saving a file without changing it does not reload anything.
+        updateChecksums(Set.of(directory.resolve(GENERAL_FILE)));
+        updateChecksums(getMessageFiles());
+
+        WatchService service = watchService;
+        Thread thread = new Thread(() -> watch(service), "AutoRestart-ConfigWatcher");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    public synchronized void stop() {
+        if (pendingReload != null) {
+            pendingReload.cancel(false);
+            pendingReload = null;
+        }
+
+        if (watchService != null) {
+            try {
+                watchService.close();
+            } catch (IOException ignored) {
+            }
+
+            watchService = null;
+        }
+
+        checksums.clear();
+        generalChanged = false;
+        messagesChanged = false;
+    }
+
+    private void watch(@NotNull WatchService service) {
+        while (true) {
+            WatchKey key;
+
+            try {
+                key = service.take();
+            } catch (InterruptedException | ClosedWatchServiceException e) {
+                return;
+            }
+
+            Path parent = (Path) key.watchable();
+
+            for (WatchEvent<?> event : key.pollEvents()) {
+                if (event.kind() == StandardWatchEventKinds.OVERFLOW) {
+                    onChanged(service, null);
+                } else {
+                    onChanged(service, parent.resolve((Path) event.context()));
+                }
+            }
+
+            key.reset();
+        }
+    }
+
+    private synchronized void onChanged(@NotNull WatchService service, @Nullable Path file) {
+        if (service != watchService) {
+            return;
+        }
+
+        if (file == null) {
+            // Events were lost, so both files are compared against their checksums.
+            generalChanged = true;
+            messagesChanged = true;
+        } else if (file.equals(directory.resolve(GENERAL_FILE))) {
+            generalChanged = true;
+        } else if (file.equals(directory.resolve(MESSAGE_FILE))) {
+            messagesChanged = true;
+        } else if (file.equals(languages)) {
+            registerLanguages();
+            messagesChanged = true;
+        } else if (languages.equals(file.getParent()) && file.getFileName().toString().endsWith(".yml")) {
+            messagesChanged = true;
+        } else {
+            return;
+        }
+
+        // Editors often write a file in several steps, so the reload waits until the writes stop.
+        if (pendingReload != null) {
+            pendingReload.cancel(false);
+        }
+
+        long debounce = plugin.getGeneralConfig().getSettings().getHotReloadDebounce();
+        pendingReload = plugin.getTaskScheduler().schedule(this::reload, debounce, TimeUnit.MILLISECONDS);
+    }
+
+    private synchronized void reload() {
+        if (watchService == null) {
+            return;
+        }
+
+        pendingReload = null;
+
+        boolean general = generalChanged && updateChecksums(Set.of(directory.resolve(GENERAL_FILE)));
+        boolean messages = messagesChanged && updateChecksums(getMessageFiles());
+
+        generalChanged = false;
+        messagesChanged = false;
+
+        if ((general || messages) && plugin.isEnabled()) {
+            plugin.getServer().getScheduler().runTask(plugin, () -> plugin.applyChanges(general, messages));
+        }
+    }
+
+    private void register(@NotNull Path path) throws IOException {
+        path.register(watchService, StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_MODIFY,
+                StandardWatchEventKinds.ENTRY_DELETE);
+    }
+
+    private void registerLanguages() {
+        if (!Files.isDirectory(languages)) {
+            return;
+        }
+
+        try {
+            register(languages);
+        } catch (IOException e) {
+            plugin.getLogger().log(Level.WARNING, "Could not watch " + languages, e);
+        }
+    }
+
+    @NotNull
+    private Set<Path> getMessageFiles() {
+        Set<Path> files = new LinkedHashSet<>();
+        files.add(directory.resolve(MESSAGE_FILE));
+
+        // Language files seen before are kept in the set so that deleting one counts as a change.
+        for (Path file : checksums.keySet()) {
+            if (languages.equals(file.getParent())) {
+                files.add(file);
+            }
+        }
+
+        if (Files.isDirectory(languages)) {
+            try (DirectoryStream<Path> stream = Files.newDirectoryStream(languages, "*.yml")) {
+                stream.forEach(files::add);
+            } catch (IOException e) {
+                plugin.getLogger().log(Level.WARNING, "Could not list the language files in " + languages, e);
+            }
+        }
+
+        return files;
+    }
+
+    private boolean updateChecksums(@NotNull Set<Path> files) {
+        boolean changed = false;
+
+        for (Path file : files) {
+            Long checksum = checksum(file);
+            Long previous = checksum != null ? checksums.put(file, checksum) : checksums.remove(file);
+
+            if (!Objects.equals(previous, checksum)) {
+                changed = true;
+            }
+        }
+
+        return changed;
+    }
+
+    @Nullable
+    private static Long checksum(@NotNull Path file) {
+        if (!Files.isRegularFile(file)) {
+            return null;
+        }
+
+        try {
+            CRC32 crc = new CRC32();
+            crc.update(Files.readAllBytes(file));
+            return crc.getValue();
+        } catch (IOException e) {
+            return null;
+        }
+    }
+}
@@ -2,77 +2,78 @@ package net.okocraft.autorestart.config;
 
 import com.github.siroshun09.configapi.bukkit.BukkitConfig;
 import net.okocraft.autorestart.AutoRestartPlugin;
+import org.bukkit.configuration.file.YamlConfiguration;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
-import java.time.Duration;
-import java.time.LocalDateTime;
-import java.time.LocalTime;
-import java.time.format.DateTimeFormatter;
-import java.time.format.DateTimeParseException;
-import java.util.HashSet;
+import java.time.ZonedDateTime;
 import java.util.List;
-import java.util.Set;
 
 public class GeneralConfig extends BukkitConfig {
 
     private final AutoRestartPlugin plugin;
 
+    private volatile GeneralSettings settings;
+
     public GeneralConfig(@NotNull AutoRestartPlugin plugin) {
         super(plugin, "config.yml", true);
         this.plugin = plugin;
+
+        YamlConfiguration yaml = parse();
+        settings = new GeneralSettings(yaml != null ? yaml : new YamlConfiguration(), plugin.getLogger());
+    }
+
+    public boolean load() {
+        YamlConfiguration yaml = parse();
+
+        if (yaml == null) {
+            return false;
+        }
+
+        // Built from the copy that was checked, so a write in between cannot slip in unchecked.
+        settings = new GeneralSettings(yaml, plugin.getLogger());
+        return true;
+    }
+
+    @NotNull
+    public GeneralSettings getSettings() {
+        return settings;
     }
 
     @NotNull
     public String getRestartCommand() {
-        return getString("restart.command", "restart");
+        return settings.getRestartCommand();
     }
 
     @NotNull
     public List<String> getCommandsBeforeRestart() {
-        return getStringList("restart.commands-before");
+        return settings.getCommandsBeforeRestart();
     }
 
     @NotNull
     public List<Long> getSecondsToBroadcast() {
-        return getLongList("restart.seconds-to-broadcast", List.of(1L, 2L, 3L, 4L, 5L, 10L, 30L, 60L));
+        return settings.getSecondsToBroadcast();
     }
 
     public long getDefaultNoticeTime() {
-        return getLong("restart.default-notice-time", 60L);
+        return settings.getDefaultNoticeTime();
     }
 
     public boolean isBossBarEnabled() {
-        return getBoolean("restart.enable-bossbar", true);
+        return settings.isBossBarEnabled();
     }
 
     public boolean isKickBefore() {
-        return getBoolean("restart.kick-before", true);
+        return settings.isKickBefore();
     }
 
     @Nullable
-    public LocalDateTime getNextAutoRestartTime() {
-        DateTimeFormatter formatter = DateTimeFormatter.ofPattern("HH:mm");
-
-        Set<Long> durations = new HashSet<>();
-        LocalDateTime now = LocalDateTime.now().withNano(0);
-
-        for (String strTime : getStringList("restart.auto.time")) {
-            try {
-                LocalTime time = LocalTime.parse(strTime, formatter).withSecond(0).withNano(0);
-
-                long duration = Duration.between(now, time.atDate(now.toLocalDate())).getSeconds();
-                if (duration < 1) {
-                    duration += 86400;
-                }
-
-                durations.add(duration);
-            } catch (DateTimeParseException e) {
-                plugin.getLogger().severe("Invalid time format: " + strTime);
-            }
-        }
+    public ZonedDateTime getNextAutoRestartTime() {
+        return settings.getSchedule().next(plugin.getTaskScheduler().getClock().instant());
+    }
 
-        long nextRestartSeconds = durations.stream().sorted().findFirst().orElse(0L);
-        return nextRestartSeconds != 0 ? now.plusSeconds(nextRestartSeconds) : null;
+    @Nullable
+    private YamlConfiguration parse() {
+        return ConfigFiles.parse(plugin.getDataFolder().toPath().resolve("config.yml"), plugin.getLogger());
     }
 }
@@ -0,0 +1,487 @@
+package net.okocraft.autorestart.config;
+
+import net.okocraft.autorestart.schedule.RestartSchedule;
+import net.okocraft.autorestart.tasks.CommandStep;
+import net.okocraft.autorestart.tasks.TimelineAction;
+import org.bukkit.configuration.ConfigurationSection;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.logging.Logger;
+import java.util.stream.Collectors;
+
+public final class GeneralSettings {
+
+    private final String restartCommand;
+    private final List<String> commandsBeforeRestart;
+    private final List<CommandStep> stepsBeforeRestart;
+    private final long commandsBeforeTimeout;
+    private final List<String> timelineSource;
+    private final List<TimelineAction> timeline;
+    private final long[] broadcastSeconds;
+    private final List<Long> secondsToBroadcast;
+    private final long defaultNoticeTime;
+    private final boolean bossBarEnabled;
+    private final boolean bossBarSkipUnchanged;
+    private final long bossBarInterval;
+    private final boolean chatEnabled;
+    private final boolean actionBarEnabled;
+    private final long actionBarInterval;
+    private final boolean titleEnabled;
+    private final long titleFrom;
+    private final long titleInterval;
+    private final boolean kickBefore;
+    private final int kickPlayersPerTick;
+    private final long kickMillisPerTick;
+    private final long kickTimeout;
+    private final boolean worldSaveEnabled;
+    private final long worldSaveStart;
+    private final long worldSaveUnloadStart;
+    private final long worldSaveMillisPerTick;
+    private final List<String> autoRestartTimes;
+    private final String autoRestartZone;
+    private final List<String> autoRestartExcludes;
+    private final RestartSchedule schedule;
+    private final boolean playerAwareEnabled;
+    private final int playerAwareMaxPlayers;
+    private final long playerAwareEarlyWindow;
+    private final long playerAwareMaxDelay;
+    private final boolean coordinationEnabled;
+    private final String coordinationDirectory;
+    private final String coordinationServerId;
+    private final int coordinationMaxConcurrent;
+    private final long coordinationSlotLength;
+    private final long coordinationMaxShift;
+    private final boolean healthEnabled;
+    private final double healthMinTps;
+    private final double healthHysteresis;
+    private final long healthWindow;
+    private final long healthDuration;
+    private final long healthCooldown;
+    private final long healthNoticeTime;
+    private final boolean memoryEnabled;
+    private final double memoryCeiling;
+    private final int memoryMinSamples;
+    private final double memoryHalfLife;
+    private final long memoryMargin;
+    private final long memoryNoticeTime;
+    private final long memoryCooldown;
+    private final boolean warmUpEnabled;
+    private final double warmUpLoginsPerSecond;
+    private final int warmUpBurst;
+    private final double warmUpSettleMspt;
+    private final long warmUpSettleTime;
+    private final long warmUpTimeout;
+    private final boolean hotReloadEnabled;
+    private final long hotReloadDebounce;
+
+    GeneralSettings(@NotNull ConfigurationSection config, @NotNull Logger logger) {
+        restartCommand = config.getString("restart.command", "restart");
+        commandsBeforeRestart = List.copyOf(config.getStringList("restart.commands-before"));
+        stepsBeforeRestart = parseSteps(commandsBeforeRestart, logger);
+        commandsBeforeTimeout = Math.max(1L, config.getLong("restart.commands-before-timeout", 120L));
+        timelineSource = List.copyOf(config.getStringList("restart.timeline"));
+        timeline = parseTimeline(timelineSource, logger);
+        broadcastSeconds = getLongList(config, "restart.seconds-to-broadcast", List.of(1L, 2L, 3L, 4L, 5L, 10L, 30L, 60L))
+                .stream().mapToLong(Long::longValue).sorted().distinct().toArray();
+        secondsToBroadcast = Arrays.stream(broadcastSeconds).boxed().collect(Collectors.toUnmodifiableList());
+        defaultNoticeTime = config.getLong("restart.default-notice-time", 60L);
+        bossBarEnabled = config.getBoolean("restart.enable-bossbar", true);
+        bossBarSkipUnchanged = config.getBoolean("restart.bossbar-skip-unchanged", true);
+        bossBarInterval = Math.max(1L, config.getLong("restart.bossbar-interval", 1L));
+        chatEnabled = config.getBoolean("restart.display.chat.enabled", true);
+        actionBarEnabled = config.getBoolean("restart.display.action-bar.enabled", false);
+        // The client fades the action bar out after about three seconds, so it has to be sent more often.
+        actionBarInterval = Math.max(1L, Math.min(2L, config.getLong("restart.display.action-bar.interval", 1L)));
+        titleEnabled = config.getBoolean("restart.display.title.enabled", false);
+        titleFrom = Math.max(1L, config.getLong("restart.display.title.from", 10L));
+        titleInterval = Math.max(1L, config.getLong("restart.display.title.interval", 1L));
+        kickBefore = config.getBoolean("restart.kick-before", true);
+        kickPlayersPerTick = Math.max(1, config.getInt("restart.kick-players-per-tick", 10));
+        kickMillisPerTick = Math.max(1L, config.getLong("restart.kick-max-millis-per-tick", 20L));
+        kickTimeout = Math.max(1L, config.getLong("restart.kick-timeout", 30L));
+        worldSaveEnabled = config.getBoolean("restart.world-save.enabled", false);
+        worldSaveStart = Math.max(1L, config.getLong("restart.world-save.start", 60L));
+        worldSaveUnloadStart = Math.max(0L, config.getLong("restart.world-save.unload-chunks", 30L));
+        worldSaveMillisPerTick = Math.max(1L, config.getLong("restart.world-save.max-millis-per-tick", 10L));
+        autoRestartTimes = List.copyOf(config.getStringList("restart.auto.time"));
+        autoRestartZone = config.getString("restart.auto.zone", "");
+        autoRestartExcludes = List.copyOf(config.getStringList("restart.auto.exclude"));
+        schedule = RestartSchedule.compile(autoRestartTimes, autoRestartZone, autoRestartExcludes, logger);
+        playerAwareEnabled = config.getBoolean("restart.auto.player-aware.enabled", false);
+        playerAwareMaxPlayers = Math.max(0, config.getInt("restart.auto.player-aware.max-players", 0));
+        playerAwareEarlyWindow = Math.max(0L, config.getLong("restart.auto.player-aware.early-window", 1800L));
+        playerAwareMaxDelay = Math.max(0L, config.getLong("restart.auto.player-aware.max-delay", 3600L));
+        coordinationEnabled = config.getBoolean("restart.auto.coordination.enabled", false);
+        coordinationDirectory = config.getString("restart.auto.coordination.directory", "../autorestart");
+        coordinationServerId = config.getString("restart.auto.coordination.server-id", "");
+        coordinationMaxConcurrent = Math.max(1, config.getInt("restart.auto.coordination.max-concurrent", 1));
+        coordinationSlotLength = Math.max(1L, config.getLong("restart.auto.coordination.slot-length", 180L));
+        coordinationMaxShift = Math.max(0L, config.getLong("restart.auto.coordination.max-shift", 3600L));
+        healthEnabled = config.getBoolean("restart.health.enabled", false);
+        healthMinTps = config.getDouble("restart.health.min-tps", 15.0);
+        healthHysteresis = Math.max(0.0, config.getDouble("restart.health.hysteresis", 1.0));
+        healthWindow = Math.max(1L, config.getLong("restart.health.window", 60L));
+        healthDuration = Math.max(0L, config.getLong("restart.health.duration", 120L));
+        healthCooldown = Math.max(0L, config.getLong("restart.health.cooldown", 1800L));
+        healthNoticeTime = Math.max(1L, config.getLong("restart.health.notice-time", 60L));
+        memoryEnabled = config.getBoolean("restart.memory.enabled", false);
+        memoryCeiling = Math.max(1.0, Math.min(100.0, config.getDouble("restart.memory.ceiling", 90.0)));
+        memoryMinSamples = Math.max(3, config.getInt("restart.memory.min-samples", 20));
+        memoryHalfLife = Math.max(1.0, config.getDouble("restart.memory.half-life", 50.0));
+        memoryMargin = Math.max(0L, config.getLong("restart.memory.margin", 600L));
+        memoryNoticeTime = Math.max(1L, config.getLong("restart.memory.notice-time", 60L));
+        memoryCooldown = Math.max(0L, config.getLong("restart.memory.cooldown", 1800L));
+        warmUpEnabled = config.getBoolean("restart.warm-up.enabled", false);
+        warmUpLoginsPerSecond = Math.max(0.1, config.getDouble("restart.warm-up.logins-per-second", 2.0));
+        warmUpBurst = Math.max(1, config.getInt("restart.warm-up.burst", 5));
+        warmUpSettleMspt = Math.max(50.0, config.getDouble("restart.warm-up.settle-mspt", 55.0));
+        warmUpSettleTime = Math.max(1L, config.getLong("restart.warm-up.settle-time", 10L));
+        warmUpTimeout = Math.max(1L, config.getLong("restart.warm-up.timeout", 120L));
+        hotReloadEnabled = config.getBoolean("restart.hot-reload.enabled", false);
+        hotReloadDebounce = Math.max(0L, config.getLong("restart.hot-reload.debounce", 1000L));
+    }
+
+    @NotNull
+    public String getRestartCommand() {
+        return restartCommand;
+    }
+
+    @NotNull
+    public List<String> getCommandsBeforeRestart() {
+        return commandsBeforeRestart;
+    }
+
+    @NotNull
+    public List<CommandStep> getStepsBeforeRestart() {
+        return stepsBeforeRestart;
+    }
+
+    public long getCommandsBeforeTimeout() {
+        return commandsBeforeTimeout;
+    }
+
+    @NotNull
+    public List<TimelineAction> getTimeline() {
+        return timeline;
+    }
+
+    @NotNull
+    public List<Long> getSecondsToBroadcast() {
+        return secondsToBroadcast;
+    }
+
+    public boolean isBroadcastSecond(long second) {
+        return 0 <= Arrays.binarySearch(broadcastSeconds, second);
+    }
+
+    public boolean hasBroadcastSecondBetween(long fromInclusive, long toExclusive) {
+        int index = Arrays.binarySearch(broadcastSeconds, fromInclusive);
+        int insertion = index < 0 ? -index - 1 : index;
+        return insertion < broadcastSeconds.length && broadcastSeconds[insertion] < toExclusive;
+    }
+
+    public long getDefaultNoticeTime() {
+        return defaultNoticeTime;
+    }
+
+    public boolean isBossBarEnabled() {
+        return bossBarEnabled;
+    }
+
+    public boolean isBossBarSkipUnchanged() {
+        return bossBarSkipUnchanged;
+    }
+
+    public long getBossBarInterval() {
+        return bossBarInterval;
+    }
+
+    public boolean isChatEnabled() {
+        return chatEnabled;
+    }
+
+    public boolean isActionBarEnabled() {
+        return actionBarEnabled;
+    }
+
+    public long getActionBarInterval() {
+        return actionBarInterval;
+    }
+
+    public boolean isTitleEnabled() {
+        return titleEnabled;
+    }
+
+    public long getTitleFrom() {
+        return titleFrom;
+    }
+
+    public long getTitleInterval() {
+        return titleInterval;
+    }
+
+    public boolean isKickBefore() {
+        return kickBefore;
+    }
+
+    public int getKickPlayersPerTick() {
+        return kickPlayersPerTick;
+    }
+
+    public long getKickMillisPerTick() {
+        return kickMillisPerTick;
+    }
+
+    public long getKickTimeout() {
+        return kickTimeout;
+    }
+
+    public boolean isWorldSaveEnabled() {
+        return worldSaveEnabled;
+    }
+
+    public long getWorldSaveStart() {
+        return worldSaveStart;
+    }
+
+    public long getWorldSaveUnloadStart() {
+        return worldSaveUnloadStart;
+    }
+
+    public long getWorldSaveMillisPerTick() {
+        return worldSaveMillisPerTick;
+    }
+
+    @NotNull
+    public List<String> getAutoRestartTimes() {
+        return autoRestartTimes;
+    }
+
+    @NotNull
+    public RestartSchedule getSchedule() {
+        return schedule;
+    }
+
+    public boolean isPlayerAwareEnabled() {
+        return playerAwareEnabled;
+    }
+
+    public int getPlayerAwareMaxPlayers() {
+        return playerAwareMaxPlayers;
+    }
+
+    public long getPlayerAwareEarlyWindow() {
+        return playerAwareEarlyWindow;
+    }
+
+    public long getPlayerAwareMaxDelay() {
+        return playerAwareMaxDelay;
+    }
+
+    public boolean isCoordinationEnabled() {
+        return coordinationEnabled;
+    }
+
+    @NotNull
+    public String getCoordinationDirectory() {
+        return coordinationDirectory;
+    }
+
+    @NotNull
+    public String getCoordinationServerId() {
+        return coordinationServerId;
+    }
+
+    public int getCoordinationMaxConcurrent() {
+        return coordinationMaxConcurrent;
+    }
+
+    public long getCoordinationSlotLength() {
+        return coordinationSlotLength;
+    }
+
+    public long getCoordinationMaxShift() {
+        return coordinationMaxShift;
+    }
+
+    public boolean isHealthEnabled() {
+        return healthEnabled;
+    }
+
+    public double getHealthMinTps() {
+        return healthMinTps;
+    }
+
+    public double getHealthHysteresis() {
+        return healthHysteresis;
+    }
+
+    public long getHealthWindow() {
+        return healthWindow;
+    }
+
+    public long getHealthDuration() {
+        return healthDuration;
+    }
+
+    public long getHealthCooldown() {
+        return healthCooldown;
+    }
+
+    public long getHealthNoticeTime() {
+        return healthNoticeTime;
+    }
+
+    public boolean isMemoryEnabled() {
+        return memoryEnabled;
+    }
+
+    public double getMemoryCeiling() {
+        return memoryCeiling;
+    }
+
+    public int getMemoryMinSamples() {
+        return memoryMinSamples;
+    }
+
+    public double getMemoryHalfLife() {
+        return memoryHalfLife;
+    }
+
+    public long getMemoryMargin() {
+        return memoryMargin;
+    }
+
+    public long getMemoryNoticeTime() {
+        return memoryNoticeTime;
+    }
+
+    public long getMemoryCooldown() {
+        return memoryCooldown;
+    }
+
+    public boolean isWarmUpEnabled() {
+        return warmUpEnabled;
+    }
+
+    public double getWarmUpLoginsPerSecond() {
+        return warmUpLoginsPerSecond;
+    }
+
+    public int getWarmUpBurst() {
+        return warmUpBurst;
+    }
+
+    public double getWarmUpSettleMspt() {
+        return warmUpSettleMspt;
+    }
+
+    public long getWarmUpSettleTime() {
+        return warmUpSettleTime;
+    }
+
+    public long getWarmUpTimeout() {
+        return warmUpTimeout;
+    }
+
+    public boolean isHotReloadEnabled() {
+        return hotReloadEnabled;
+    }
+
+    public long getHotReloadDebounce() {
+        return hotReloadDebounce;
+    }
+
+    public boolean isScheduleChanged(@NotNull GeneralSettings previous) {
+        return !autoRestartTimes.equals(previous.autoRestartTimes)
+                || !autoRestartZone.equals(previous.autoRestartZone)
+                || !autoRestartExcludes.equals(previous.autoRestartExcludes);
+    }
+
+    public boolean isPlayerAwareChanged(@NotNull GeneralSettings previous) {
+        return playerAwareEnabled != previous.playerAwareEnabled
+                || playerAwareMaxPlayers != previous.playerAwareMaxPlayers
+                || playerAwareEarlyWindow != previous.playerAwareEarlyWindow
+                || playerAwareMaxDelay != previous.playerAwareMaxDelay;
+    }
+
+    public boolean isCoordinationChanged(@NotNull GeneralSettings previous) {
+        return coordinationEnabled != previous.coordinationEnabled
+                || !coordinationDirectory.equals(previous.coordinationDirectory)
+                || !coordinationServerId.equals(previous.coordinationServerId)
+                || coordinationMaxConcurrent != previous.coordinationMaxConcurrent
+                || coordinationSlotLength != previous.coordinationSlotLength
+                || coordinationMaxShift != previous.coordinationMaxShift;
+    }
+
+    public boolean isCountdownChanged(@NotNull GeneralSettings previous) {
+        return defaultNoticeTime != previous.defaultNoticeTime || !timelineSource.equals(previous.timelineSource);
+    }
+
+    public boolean isDisplayChanged(@NotNull GeneralSettings previous) {
+        return !Arrays.equals(broadcastSeconds, previous.broadcastSeconds)
+                || chatEnabled != previous.chatEnabled
+                || bossBarEnabled != previous.bossBarEnabled
+                || actionBarEnabled != previous.actionBarEnabled
+                || titleEnabled != previous.titleEnabled;
+    }
+
+    public boolean isHealthChanged(@NotNull GeneralSettings previous) {
+        return healthEnabled != previous.healthEnabled
+                || healthMinTps != previous.healthMinTps
+                || healthHysteresis != previous.healthHysteresis
+                || healthWindow != previous.healthWindow
+                || healthDuration != previous.healthDuration
+                || healthCooldown != previous.healthCooldown
+                || healthNoticeTime != previous.healthNoticeTime;
+    }
+
+    public boolean isMemoryChanged(@NotNull GeneralSettings previous) {
+        return memoryEnabled != previous.memoryEnabled
+                || memoryCeiling != previous.memoryCeiling
+                || memoryMinSamples != previous.memoryMinSamples
+                || memoryHalfLife != previous.memoryHalfLife
+                || memoryMargin != previous.memoryMargin
+                || memoryNoticeTime != previous.memoryNoticeTime
+                || memoryCooldown != previous.memoryCooldown;
+    }
+
+    @NotNull
+    private static List<Long> getLongList(@NotNull ConfigurationSection config, @NotNull String path,
+                                          @NotNull List<Long> def) {
+        return config.isList(path) ? config.getLongList(path) : def;
+    }
+
+    @NotNull
+    private static List<CommandStep> parseSteps(@NotNull List<String> lines, @NotNull Logger logger) {
+        List<CommandStep> steps = new ArrayList<>(lines.size());
+
+        for (String line : lines) {
+            try {
+                steps.add(CommandStep.parse(line));
+            } catch (IllegalArgumentException e) {
+                logger.severe("Invalid command in restart.commands-before: " + e.getMessage());
+            }
+        }
+
+        return List.copyOf(steps);
+    }
+
+    @NotNull
+    private static List<TimelineAction> parseTimeline(@NotNull List<String> lines, @NotNull Logger logger) {
+        List<TimelineAction> actions = new ArrayList<>(lines.size());
+
+        for (String line : lines) {
+            try {
+                actions.add(TimelineAction.parse(line));
+            } catch (IllegalArgumentException e) {
+                logger.severe("Invalid action in restart.timeline: " + e.getMessage());
+            }
+        }
+
+        return List.copyOf(actions);
+    }
+}
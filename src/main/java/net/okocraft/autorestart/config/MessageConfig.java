@@ -2,135 +2,430 @@ package net.okocraft.autorestart.config;
 
 import com.github.siroshun09.configapi.bukkit.BukkitConfig;
 import net.okocraft.autorestart.AutoRestartPlugin;
-import org.bukkit.ChatColor;
+import org.bukkit.configuration.file.YamlConfiguration;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BiFunction;
+import java.util.logging.Level;
 
 public class MessageConfig extends BukkitConfig {
 
+    private static final String TIME = "%time%";
+    private static final String REASON = "%reason%";
+    private static final String DEFAULT_LOCALE = "";
+    private static final String LANGUAGES_DIRECTORY = "languages";
+
     private final AutoRestartPlugin plugin;
 
+    private final Map<String, String> resolvedLocales = new ConcurrentHashMap<>();
+
+    private volatile Templates templates;
+    private volatile Map<String, Templates> localized = Map.of();
+
     public MessageConfig(@NotNull AutoRestartPlugin plugin) {
         super(plugin, "message.yml", true);
         this.plugin = plugin;
+
+        YamlConfiguration yaml = parse();
+        compileTemplates(yaml != null ? yaml : new YamlConfiguration());
+    }
+
+    public boolean load() {
+        YamlConfiguration yaml = parse();
+
+        if (yaml == null) {
+            return false;
+        }
+
+        // Compiled from the copy that was checked, so a write in between cannot slip in unchecked.
+        compileTemplates(yaml);
+        return true;
+    }
+
+    @NotNull
+    public Set<String> getLocales() {
+        return localized.keySet();
+    }
+
+    @NotNull
+    public String resolveLocale(@Nullable String clientLocale) {
+        if (clientLocale == null || clientLocale.isEmpty()) {
+            return DEFAULT_LOCALE;
+        }
+
+        return resolvedLocales.computeIfAbsent(clientLocale, this::findLocale);
     }
 
     @NotNull
     public String getKickMessage(@NotNull String reason) {
-        return colorize(getString("restart.kick", "Server is restarting. Please wait a little...")
-                .replace("%reason%", reason)
-        );
+        return templates.kick.render(reason);
+    }
+
+    @NotNull
+    public String getKickMessage(@NotNull String locale, @NotNull String reason) {
+        return getTemplates(locale).kick.render(reason);
     }
 
     @NotNull
     public String getFormattedReason(@NotNull String reason) {
-        return colorize(getString("restart.reason.format", "&7[&b%reason%&7]").replace("%reason%", reason));
+        return getFormattedReason(DEFAULT_LOCALE, reason);
+    }
+
+    @NotNull
+    public String getFormattedReason(@NotNull String locale, @Nullable String reason) {
+        return reason != null ? getTemplates(locale).reasonFormat.render(MessageTemplate.colorize(reason)) : "";
     }
 
     @NotNull
     public String getScheduledRestartReason() {
-        return colorize(getString("restart.reason.scheduled-restart", "Scheduled Restart"));
+        return templates.scheduledRestart.render();
+    }
+
+    @NotNull
+    public String getLowTpsRestartReason() {
+        return templates.lowTpsRestart.render();
+    }
+
+    @NotNull
+    public String getMemoryRestartReason() {
+        return templates.memoryRestart.render();
     }
 
     @NotNull
     public String getCountdownMessage(long seconds, @NotNull String reason) {
-        return colorize(getPrefix() +
-                getString("restart.countdown.message", "The server will restart in %time% seconds.")
-                        .replace("%time%", String.valueOf(seconds))
-                        .replace("%reason%", reason)
-        );
+        return templates.countdownMessage.render(String.valueOf(seconds), reason);
+    }
+
+    @NotNull
+    public String getCountdownMessage(@NotNull String locale, long seconds, @NotNull String reason) {
+        return getTemplates(locale).countdownMessage.render(String.valueOf(seconds), reason);
     }
 
     @NotNull
     public String getCountdownBarTitle(long seconds, @NotNull String reason) {
-        return colorize(getString("restart.countdown.bossbar", "&eThe server will restart in %time% seconds")
-                .replace("%time%", String.valueOf(seconds))
-                .replace("%reason%", reason)
-        );
+        return templates.countdownBarTitle.render(String.valueOf(seconds), reason);
+    }
+
+    @NotNull
+    public String getCountdownBarTitle(@NotNull String locale, long seconds, @NotNull String reason) {
+        return getTemplates(locale).countdownBarTitle.render(String.valueOf(seconds), reason);
+    }
+
+    @NotNull
+    public String getCountdownActionBar(@NotNull String locale, long seconds, @NotNull String reason) {
+        return getTemplates(locale).countdownActionBar.render(String.valueOf(seconds), reason);
+    }
+
+    @NotNull
+    public String getCountdownTitle(@NotNull String locale, long seconds, @NotNull String reason) {
+        return getTemplates(locale).countdownTitle.render(String.valueOf(seconds), reason);
+    }
+
+    @NotNull
+    public String getCountdownSubtitle(@NotNull String locale, long seconds, @NotNull String reason) {
+        return getTemplates(locale).countdownSubtitle.render(String.valueOf(seconds), reason);
+    }
+
+    @NotNull
+    public String getLoginThrottledMessage(long seconds) {
+        return templates.loginThrottled.render(String.valueOf(seconds));
     }
 
     @NotNull
     public String getCancelRestarting() {
-        return colorize(getPrefix() + getString("command.cancel", "Restart has been cancelled."));
+        return templates.cancel.render();
     }
 
     @NotNull
     public String getCheckMessage() {
         String time = plugin.getRestartTimeAsString();
         if (time.isEmpty()) {
-            return colorize(getPrefix() + getString("command.check.not-scheduled", "&7Restart is not scheduled."));
+            return templates.checkNotScheduled.render();
         } else {
-            return colorize(getPrefix() +
-                    getString("command.check.scheduled", "Restart has been scheduled at &b%time%")
-                            .replace("%time%", time));
+            return templates.checkScheduled.render(time);
         }
     }
 
     @NotNull
     public String getRestartNowMessage() {
-        return colorize(getPrefix() + getString("command.now", "Restart server now."));
+        return templates.now.render();
     }
 
     @NotNull
     public String getReloadMessage() {
-        return colorize(getPrefix() +
-                getString("command.reload", "&bAutoRestart is reloading... Please check the server console."));
+        return templates.reload.render();
     }
 
     @NotNull
     public String getRestartSecondMessage(long second, @NotNull String reason) {
-        return colorize(getPrefix() + getString("command.restart", "&cThe server will restart in &b%time% seconds")
-                .replace("%time%", String.valueOf(second))
-                .replace("%reason%", reason)
-        );
+        return templates.restartSecond.render(String.valueOf(second), reason);
     }
 
     @NotNull
     public String getRestartTimeMessage(@NotNull String reason) {
-        return colorize(getPrefix() + getString("command.time", "&cThe server will restart at &b%time%")
-                .replace("%time%", plugin.getRestartTimeAsString())
-                .replace("%reason%", reason)
-        );
+        return templates.restartTime.render(plugin.getRestartTimeAsString(), reason);
     }
 
     @NotNull
     public String getNoPermission(@NotNull String perm) {
-        return colorize(getPrefix() +
-                getString("command.no-permission", "&cYou don't have permission: %perm%").replace("%perm%", perm));
+        // Values are colorized like the rest of the message, as they were before templates were compiled.
+        return templates.noPermission.render(MessageTemplate.colorize(perm));
     }
 
     @NotNull
     public String getInvalidArg(@NotNull String arg) {
-        return colorize(getPrefix() +
-                getString("command.invalid-arg", "Invalid argument: &b%arg%").replace("%arg%", arg));
+        return templates.invalidArg.render(MessageTemplate.colorize(arg));
+    }
+
+    @NotNull
+    public String getStatsHeader() {
+        return templates.statsHeader.render();
+    }
+
+    @NotNull
+    public String getStatsHistogram(@NotNull String name, long count, @NotNull String mean,
+                                    @NotNull String p99, @NotNull String max) {
+        return templates.statsHistogram.render(name, String.valueOf(count), mean, p99, max);
+    }
+
+    @NotNull
+    public String getStatsValue(@NotNull String name, @NotNull String value) {
+        return templates.statsValue.render(name, value);
+    }
+
+    @NotNull
+    public String getHistoryHeader(int count) {
+        return templates.historyHeader.render(String.valueOf(count));
+    }
+
+    @NotNull
+    public String getHistoryEntry(@NotNull String name, @NotNull String p50, @NotNull String p90,
+                                  @NotNull String p99, @NotNull String max) {
+        return templates.historyEntry.render(name, p50, p90, p99, max);
+    }
+
+    @NotNull
+    public String getHistoryEmpty() {
+        return templates.historyEmpty.render();
     }
 
     @NotNull
     public String getHelp() {
-        return colorize(String.join("\n",
-                getStringList("command.help", List.of(
+        return templates.help;
+    }
+
+    @Nullable
+    private YamlConfiguration parse() {
+        return ConfigFiles.parse(plugin.getDataFolder().toPath().resolve("message.yml"), plugin.getLogger());
+    }
+
+    private void compileTemplates(@NotNull YamlConfiguration messages) {
+        Templates defaults = compileTemplates(messages::getString, (path, def) -> getStringList(messages, path, def));
+
+        Map<String, Templates> localized = new HashMap<>();
+        localized.put(DEFAULT_LOCALE, defaults);
+        loadLanguages(messages, localized);
+
+        this.localized = Map.copyOf(localized);
+        this.templates = defaults;
+        resolvedLocales.clear();
+    }
+
+    private void loadLanguages(@NotNull YamlConfiguration messages, @NotNull Map<String, Templates> localized) {
+        Path directory = plugin.getDataFolder().toPath().resolve(LANGUAGES_DIRECTORY);
+
+        if (!Files.isDirectory(directory)) {
+            return;
+        }
+
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, "*.yml")) {
+            for (Path file : files) {
+                String fileName = file.getFileName().toString();
+                String locale = normalizeLocale(fileName.substring(0, fileName.length() - ".yml".length()));
+                YamlConfiguration yaml = ConfigFiles.parse(file, plugin.getLogger());
+
+                if (yaml == null) {
+                    // A broken file keeps the language as it was loaded before.
+                    Templates previous = this.localized.get(locale);
+                    if (previous != null) {
+                        localized.put(locale, previous);
+                    }
+                    continue;
+                }
+
+                // Keys missing from a language file fall back to message.yml.
+                localized.put(locale, compileTemplates(
+                        (path, def) -> yaml.getString(path, messages.getString(path, def)),
+                        (path, def) -> getStringList(yaml, path, getStringList(messages, path, def))
+                ));
+            }
+        } catch (IOException e) {
+            plugin.getLogger().log(Level.WARNING, "Could not load the language files in " + directory, e);
+        }
+
+        if (1 < localized.size()) {
+            Set<String> languages = new TreeSet<>(localized.keySet());
+            languages.remove(DEFAULT_LOCALE);
+            plugin.getLogger().info("Loaded languages: " + String.join(", ", languages));
+        }
+    }
+
+    @NotNull
+    private Templates compileTemplates(@NotNull BiFunction<String, String, String> strings,
+                                       @NotNull BiFunction<String, List<String>, List<String>> lists) {
+        String prefix = strings.apply("prefix", "&8[&6AutoRestart&8]&7 ");
+        Templates templates = new Templates();
+
+        templates.kick = MessageTemplate.compile(
+                strings.apply("restart.kick", "Server is restarting. Please wait a little..."), REASON);
+        templates.reasonFormat = MessageTemplate.compile(
+                strings.apply("restart.reason.format", "&7[&b%reason%&7]"), REASON);
+        templates.scheduledRestart = MessageTemplate.compile(
+                strings.apply("restart.reason.scheduled-restart", "Scheduled Restart"));
+        templates.lowTpsRestart = MessageTemplate.compile(
+                strings.apply("restart.reason.low-tps", "Low TPS"));
+        templates.memoryRestart = MessageTemplate.compile(
+                strings.apply("restart.reason.memory", "Memory Pressure"));
+        templates.countdownMessage = MessageTemplate.compile(prefix +
+                strings.apply("restart.countdown.message", "The server will restart in %time% seconds."), TIME, REASON);
+        templates.countdownBarTitle = MessageTemplate.compile(
+                strings.apply("restart.countdown.bossbar", "&eThe server will restart in %time% seconds"), TIME, REASON);
+        templates.countdownActionBar = MessageTemplate.compile(
+                strings.apply("restart.countdown.action-bar", "&eRestarting in &c%time%s"), TIME, REASON);
+        templates.countdownTitle = MessageTemplate.compile(
+                strings.apply("restart.countdown.title", "&c%time%"), TIME, REASON);
+        templates.countdownSubtitle = MessageTemplate.compile(
+                strings.apply("restart.countdown.subtitle", "&eThe server is restarting"), TIME, REASON);
+        templates.loginThrottled = MessageTemplate.compile(
+                strings.apply("restart.warm-up.throttled",
+                        "The server has just restarted. Please try again in %time% seconds."), TIME);
+        templates.cancel = MessageTemplate.compile(prefix +
+                strings.apply("command.cancel", "Restart has been cancelled."));
+        templates.checkNotScheduled = MessageTemplate.compile(prefix +
+                strings.apply("command.check.not-scheduled", "&7Restart is not scheduled."));
+        templates.checkScheduled = MessageTemplate.compile(prefix +
+                strings.apply("command.check.scheduled", "Restart has been scheduled at &b%time%"), TIME);
+        templates.now = MessageTemplate.compile(prefix +
+                strings.apply("command.now", "Restart server now."));
+        templates.reload = MessageTemplate.compile(prefix +
+                strings.apply("command.reload", "&bAutoRestart is reloading... Please check the server console."));
+        templates.restartSecond = MessageTemplate.compile(prefix +
+                strings.apply("command.restart", "&cThe server will restart in &b%time% seconds"), TIME, REASON);
+        templates.restartTime = MessageTemplate.compile(prefix +
+                strings.apply("command.time", "&cThe server will restart at &b%time%"), TIME, REASON);
+        templates.noPermission = MessageTemplate.compile(prefix +
+                strings.apply("command.no-permission", "&cYou don't have permission: %perm%"), "%perm%");
+        templates.invalidArg = MessageTemplate.compile(prefix +
+                strings.apply("command.invalid-arg", "Invalid argument: &b%arg%"), "%arg%");
+        templates.statsHeader = MessageTemplate.compile(
+                strings.apply("command.stats.header", "&8&m==============&e AutoRestart Stats &8&m=============="));
+        templates.statsHistogram = MessageTemplate.compile(
+                strings.apply("command.stats.histogram",
+                        "&b %name%&8: &7count &b%count%&7, mean &b%mean%ms&7, p99 &b%p99%ms&7, max &b%max%ms"),
+                "%name%", "%count%", "%mean%", "%p99%", "%max%");
+        templates.statsValue = MessageTemplate.compile(
+                strings.apply("command.stats.value", "&b %name%&8: &b%value%"), "%name%", "%value%");
+        templates.historyHeader = MessageTemplate.compile(
+                strings.apply("command.history.header", "&8&m==========&e Last %count% Restarts &8&m=========="), "%count%");
+        templates.historyEntry = MessageTemplate.compile(
+                strings.apply("command.history.entry",
+                        "&b %name%&8: &7p50 &b%p50%s&7, p90 &b%p90%s&7, p99 &b%p99%s&7, max &b%max%s"),
+                "%name%", "%p50%", "%p90%", "%p99%", "%max%");
+        templates.historyEmpty = MessageTemplate.compile(prefix +
+                strings.apply("command.history.empty", "&7No restart has been recorded yet."));
+        templates.help = MessageTemplate.colorize(String.join("\n",
+                lists.apply("command.help", List.of(
                         "&8&m===========&e AutoRestart &8&m===========",
                         "&7 command: &b/autorestart &7(Alias: &b/are&7)",
                         "&7 ",
                         "&b /are cancel&8: &7Cancel restart task",
                         "&b /are check&8: &7Check the next restart",
                         "&b /are help&8: &7Show this help",
+                        "&b /are history&8: &7Show downtime of past restarts",
                         "&b /are now&8: &7Restart server now",
                         "&b /are reload&8: &7Reload config.yml and message.yml",
                         "&b /are reschedule&8: &7Schedule the next auto restart",
                         "&b /are restart {seconds} {reason}&8: &7Schedule the restart task",
+                        "&b /are stats&8: &7Show restart timings",
                         "&b /are time {HH:mm} {reason}&8: &7Schedule the restart task",
                         "&7 "))));
+
+        return templates;
     }
 
     @NotNull
-    private String getPrefix() {
-        return getString("prefix", "&8[&6AutoRestart&8]&7 ");
+    private Templates getTemplates(@NotNull String locale) {
+        return localized.getOrDefault(locale, templates);
     }
 
     @NotNull
-    private String colorize(@NotNull String message) {
-        return ChatColor.translateAlternateColorCodes('&', message);
+    private String findLocale(@NotNull String clientLocale) {
+        String locale = normalizeLocale(clientLocale);
+        Map<String, Templates> localized = this.localized;
+
+        if (localized.containsKey(locale)) {
+            return locale;
+        }
+
+        int separator = locale.indexOf('_');
+
+        if (0 < separator && localized.containsKey(locale.substring(0, separator))) {
+            return locale.substring(0, separator);
+        }
+
+        return DEFAULT_LOCALE;
+    }
+
+    @NotNull
+    private static List<String> getStringList(@NotNull YamlConfiguration yaml, @NotNull String path,
+                                              @NotNull List<String> def) {
+        return yaml.isList(path) ? yaml.getStringList(path) : def;
+    }
+
+    @NotNull
+    private static String normalizeLocale(@NotNull String locale) {
+        return locale.toLowerCase(Locale.ROOT).replace('-', '_');
+    }
+
+    private static class Templates {
+        private MessageTemplate kick;
+        private MessageTemplate reasonFormat;
+        private MessageTemplate scheduledRestart;
+        private MessageTemplate lowTpsRestart;
+        private MessageTemplate memoryRestart;
+        private MessageTemplate countdownMessage;
+        private MessageTemplate countdownBarTitle;
+        private MessageTemplate countdownActionBar;
+        private MessageTemplate countdownTitle;
+        private MessageTemplate countdownSubtitle;
+        private MessageTemplate loginThrottled;
+        private MessageTemplate cancel;
+        private MessageTemplate checkNotScheduled;
+        private MessageTemplate checkScheduled;
+        private MessageTemplate now;
+        private MessageTemplate reload;
+        private MessageTemplate restartSecond;
+        private MessageTemplate restartTime;
+        private MessageTemplate noPermission;
+        private MessageTemplate invalidArg;
+        private MessageTemplate statsHeader;
+        private MessageTemplate statsHistogram;
+        private MessageTemplate statsValue;
+        private MessageTemplate historyHeader;
+        private MessageTemplate historyEntry;
+        private MessageTemplate historyEmpty;
+        private String help;
     }
 }
@@ -0,0 +1,84 @@
+package net.okocraft.autorestart.config;
+
+import org.bukkit.ChatColor;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public final class MessageTemplate {
+
+    private final String[] literals;
+    private final int[] placeholders;
+    private final int length;
+
+    private MessageTemplate(@NotNull String[] literals, @NotNull int[] placeholders) {
+        this.literals = literals;
+        this.placeholders = placeholders;
+
+        int length = 0;
+        for (String literal : literals) {
+            length += literal.length();
+        }
+        this.length = length;
+    }
+
+    @NotNull
+    public static MessageTemplate compile(@NotNull String source, @NotNull String... placeholders) {
+        List<String> literals = new ArrayList<>();
+        List<Integer> indexes = new ArrayList<>();
+
+        int position = 0;
+        while (true) {
+            int next = -1;
+            int index = -1;
+
+            for (int i = 0; i < placeholders.length; i++) {
+                int found = source.indexOf(placeholders[i], position);
+                if (found != -1 && (next == -1 || found < next)) {
+                    next = found;
+                    index = i;
+                }
+            }
+
+            if (next == -1) {
+                break;
+            }
+
+            literals.add(colorize(source.substring(position, next)));
+            indexes.add(index);
+            position = next + placeholders[index].length();
+        }
+
+        literals.add(colorize(source.substring(position)));
+
+        return new MessageTemplate(
+                literals.toArray(new String[0]),
+                indexes.stream().mapToInt(Integer::intValue).toArray()
+        );
+    }
+
+    public boolean isConstant() {
+        return placeholders.length == 0;
+    }
+
+    @NotNull
+    public String render(@NotNull String... values) {
+        if (isConstant()) {
+            return literals[0];
+        }
+
+        StringBuilder builder = new StringBuilder(length + 16 * placeholders.length);
+
+        for (int i = 0; i < placeholders.length; i++) {
+            builder.append(literals[i]).append(values[placeholders[i]]);
+        }
+
+        return builder.append(literals[placeholders.length]).toString();
+    }
+
+    @NotNull
+    static String colorize(@NotNull String message) {
+        return ChatColor.translateAlternateColorCodes('&', message);
+    }
+}
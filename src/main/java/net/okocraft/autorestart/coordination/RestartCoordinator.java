@@ -0,0 +1,218 @@
+package net.okocraft.autorestart.coordination;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.TreeSet;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+public class RestartCoordinator {
+
+    private static final long LOCK_TIMEOUT_MILLIS = 1000L;
+    private static final long LOCK_RETRY_MILLIS = 10L;
+
+    private final Path file;
+    private final String serverId;
+    private final int maxConcurrent;
+    private final long slotMillis;
+    private final long maxShiftMillis;
+    private final Clock clock;
+    private final Logger logger;
+
+    public RestartCoordinator(@NotNull Path directory, @NotNull String serverId, int maxConcurrent,
+                              @NotNull Duration slotLength, @NotNull Duration maxShift,
+                              @NotNull Clock clock, @NotNull Logger logger) {
+        this.file = directory.resolve("slots.properties");
+        this.serverId = serverId;
+        this.maxConcurrent = Math.max(1, maxConcurrent);
+        this.slotMillis = Math.max(1L, slotLength.toMillis());
+        this.maxShiftMillis = Math.max(0L, maxShift.toMillis());
+        this.clock = clock;
+        this.logger = logger;
+    }
+
+    @NotNull
+    public String getServerId() {
+        return serverId;
+    }
+
+    @NotNull
+    public synchronized Instant claim(@NotNull Instant desired) {
+        try (FileChannel channel = open(); FileLock lock = lock(channel)) {
+            if (lock == null) {
+                logger.warning("Could not lock " + file + " in time, the restart is not coordinated.");
+                return desired;
+            }
+
+            Properties slots = read(channel);
+            removeExpired(slots);
+            slots.remove(serverId);
+
+            long claimed = findSlot(slots, desired.toEpochMilli());
+            slots.setProperty(serverId, String.valueOf(claimed));
+            write(channel, slots);
+
+            return Instant.ofEpochMilli(claimed);
+        } catch (IOException | RuntimeException e) {
+            logger.log(Level.WARNING, "Could not claim a restart slot in " + file, e);
+            return desired;
+        }
+    }
+
+    public synchronized void release() {
+        if (!Files.isRegularFile(file)) {
+            return;
+        }
+
+        try (FileChannel channel = open(); FileLock lock = lock(channel)) {
+            if (lock == null) {
+                logger.warning("Could not lock " + file + " in time, the restart slot is left to expire.");
+                return;
+            }
+
+            Properties slots = read(channel);
+
+            if (slots.remove(serverId) != null) {
+                removeExpired(slots);
+                write(channel, slots);
+            }
+        } catch (IOException | RuntimeException e) {
+            logger.log(Level.WARNING, "Could not release the restart slot in " + file, e);
+        }
+    }
+
+    private long findSlot(@NotNull Properties slots, long desired) {
+        List<Long> others = new ArrayList<>(slots.size());
+
+        for (String id : slots.stringPropertyNames()) {
+            others.add(Long.parseLong(slots.getProperty(id)));
+        }
+
+        // A restart can only start when another one has started or finished,
+        // so those are the only times worth checking after the desired one.
+        TreeSet<Long> candidates = new TreeSet<>();
+        candidates.add(desired);
+
+        for (long other : others) {
+            if (desired < other + slotMillis) {
+                candidates.add(other + slotMillis);
+            }
+        }
+
+        for (long candidate : candidates) {
+            if (desired + maxShiftMillis < candidate) {
+                break;
+            }
+
+            int overlapping = 0;
+
+            for (long other : others) {
+                if (Math.abs(other - candidate) < slotMillis) {
+                    overlapping++;
+                }
+            }
+
+            if (overlapping < maxConcurrent) {
+                return candidate;
+            }
+        }
+
+        logger.warning("No free restart slot within the maximum shift, restarting at the scheduled time.");
+        return desired;
+    }
+
+    private void removeExpired(@NotNull Properties slots) {
+        long now = clock.millis();
+
+        for (Map.Entry<Object, Object> entry : new ArrayList<>(slots.entrySet())) {
+            long time;
+
+            try {
+                time = Long.parseLong(String.valueOf(entry.getValue()));
+            } catch (NumberFormatException e) {
+                slots.remove(entry.getKey());
+                continue;
+            }
+
+            if (time + slotMillis <= now) {
+                slots.remove(entry.getKey());
+            }
+        }
+    }
+
+    @NotNull
+    private FileChannel open() throws IOException {
+        Files.createDirectories(file.getParent());
+        return FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+    }
+
+    @Nullable
+    private FileLock lock(@NotNull FileChannel channel) throws IOException {
+        long deadline = System.nanoTime() + LOCK_TIMEOUT_MILLIS * 1_000_000L;
+
+        while (true) {
+            FileLock lock = channel.tryLock();
+
+            if (lock != null) {
+                return lock;
+            }
+
+            if (deadline - System.nanoTime() < 0) {
+                return null;
+            }
+
+            try {
+                Thread.sleep(LOCK_RETRY_MILLIS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return null;
+            }
+        }
+    }
+
+    @NotNull
+    private static Properties read(@NotNull FileChannel channel) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate((int) channel.size());
+
+        channel.position(0);
+        while (buffer.hasRemaining() && channel.read(buffer) != -1) {
+            // keep reading until the whole file is in the buffer
+        }
+
+        Properties properties = new Properties();
+        properties.load(new StringReader(new String(buffer.array(), 0, buffer.position(), StandardCharsets.UTF_8)));
+        return properties;
+    }
+
+    private static void write(@NotNull FileChannel channel, @NotNull Properties slots) throws IOException {
+        StringWriter writer = new StringWriter();
+        slots.store(writer, "AutoRestart restart slots: <server-id>=<restart time in epoch millis>");
+
+        ByteBuffer buffer = ByteBuffer.wrap(writer.toString().getBytes(StandardCharsets.UTF_8));
+
+        channel.truncate(0);
+        channel.position(0);
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        channel.force(false);
+    }
+}
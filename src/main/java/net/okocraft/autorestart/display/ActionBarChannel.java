@@ -0,0 +1,38 @@
+package net.okocraft.autorestart.display;
+
+import net.md_5.bungee.api.ChatMessageType;
+import net.md_5.bungee.api.chat.TextComponent;
+import net.okocraft.autorestart.AutoRestartPlugin;
+import org.bukkit.entity.Player;
+import org.jetbrains.annotations.NotNull;
+
+public class ActionBarChannel extends PlayerChannel<String> {
+
+    // The client fades the action bar out after about three seconds.
+    private static final long REFRESH_SECONDS = 2L;
+
+    public ActionBarChannel(@NotNull AutoRestartPlugin plugin) {
+        super(plugin);
+    }
+
+    @Override
+    protected boolean isDue(long remaining) {
+        return remaining % plugin.getGeneralConfig().getSettings().getActionBarInterval() == 0;
+    }
+
+    @Override
+    @NotNull
+    protected String render(@NotNull String locale, long remaining) {
+        return frames.getActionBar(locale, remaining);
+    }
+
+    @Override
+    protected void send(@NotNull Player player, @NotNull String payload) {
+        player.spigot().sendMessage(ChatMessageType.ACTION_BAR, TextComponent.fromLegacyText(payload));
+    }
+
+    @Override
+    protected long getRefreshSeconds() {
+        return REFRESH_SECONDS;
+    }
+}
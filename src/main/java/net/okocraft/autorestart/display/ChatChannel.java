@@ -0,0 +1,83 @@
+package net.okocraft.autorestart.display;
+
+import net.okocraft.autorestart.AutoRestartPlugin;
+import net.okocraft.autorestart.config.GeneralSettings;
+import net.okocraft.autorestart.config.MessageConfig;
+import net.okocraft.autorestart.tasks.CountdownFrames;
+import org.bukkit.entity.Player;
+import org.jetbrains.annotations.NotNull;
+
+public class ChatChannel implements DisplayChannel {
+
+    private final AutoRestartPlugin plugin;
+
+    private CountdownFrames frames;
+    private long lastRemaining = -1;
+
+    public ChatChannel(@NotNull AutoRestartPlugin plugin) {
+        this.plugin = plugin;
+    }
+
+    @Override
+    public void start(@NotNull CountdownFrames frames, long time) {
+        this.frames = frames;
+        lastRemaining = -1;
+        update(time);
+    }
+
+    @Override
+    public void update(long remaining) {
+        if (!isRunning()) {
+            return;
+        }
+
+        boolean broadcast = isBroadcastTime(remaining);
+        lastRemaining = remaining;
+
+        if (broadcast) {
+            broadcast(remaining);
+            plugin.getMetrics().incrementBroadcasts();
+        }
+    }
+
+    @Override
+    public void refresh(@NotNull CountdownFrames frames) {
+        if (isRunning()) {
+            this.frames = frames;
+        }
+    }
+
+    @Override
+    public void stop() {
+        frames = null;
+        lastRemaining = -1;
+    }
+
+    @Override
+    public boolean isRunning() {
+        return frames != null;
+    }
+
+    private void broadcast(long remaining) {
+        MessageConfig messageConfig = plugin.getMessageConfig();
+
+        // The frames already hold the message of every broadcast second for each language.
+        for (Player player : plugin.getServer().getOnlinePlayers()) {
+            player.sendMessage(frames.getCountdownMessage(messageConfig.resolveLocale(player.getLocale()), remaining));
+        }
+
+        plugin.getServer().getConsoleSender().sendMessage(frames.getCountdownMessage(messageConfig.resolveLocale(null), remaining));
+    }
+
+    private boolean isBroadcastTime(long remaining) {
+        GeneralSettings settings = plugin.getGeneralConfig().getSettings();
+
+        if (lastRemaining < 0) {
+            return settings.isBroadcastSecond(remaining);
+        } else {
+            // After a stall, announce once with the actual remaining time
+            // if any broadcast second was skipped.
+            return settings.hasBroadcastSecondBetween(remaining, lastRemaining);
+        }
+    }
+}
@@ -0,0 +1,137 @@
+package net.okocraft.autorestart.display;
+
+import net.okocraft.autorestart.AutoRestartPlugin;
+import net.okocraft.autorestart.config.GeneralSettings;
+import net.okocraft.autorestart.tasks.CountdownFrames;
+import net.okocraft.autorestart.timer.BossBarTimer;
+import org.bukkit.entity.Player;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.event.player.PlayerJoinEvent;
+import org.bukkit.event.player.PlayerLocaleChangeEvent;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class CountdownDisplay implements Listener {
+
+    private final AutoRestartPlugin plugin;
+    private final ChatChannel chat;
+    private final BossBarTimer bossBar;
+    private final ActionBarChannel actionBar;
+    private final TitleChannel title;
+    private final List<DisplayChannel> active = new ArrayList<>();
+
+    public CountdownDisplay(@NotNull AutoRestartPlugin plugin, @NotNull BossBarTimer bossBar) {
+        this.plugin = plugin;
+        this.chat = new ChatChannel(plugin);
+        this.bossBar = bossBar;
+        this.actionBar = new ActionBarChannel(plugin);
+        this.title = new TitleChannel(plugin);
+    }
+
+    public void start(@NotNull CountdownFrames frames, long time) {
+        if (isRunning()) {
+            stop();
+        }
+
+        active.addAll(getEnabledChannels());
+
+        for (DisplayChannel channel : active) {
+            channel.start(frames, time);
+        }
+    }
+
+    public void update(long remaining) {
+        for (DisplayChannel channel : active) {
+            channel.update(remaining);
+        }
+    }
+
+    public void refresh(@NotNull CountdownFrames frames, long remaining) {
+        if (!isRunning()) {
+            return;
+        }
+
+        List<DisplayChannel> enabled = getEnabledChannels();
+
+        // Channels that were turned off are stopped and the ones turned on join at the current second.
+        for (DisplayChannel channel : active) {
+            if (!enabled.contains(channel)) {
+                channel.stop();
+            } else {
+                channel.refresh(frames);
+            }
+        }
+
+        for (DisplayChannel channel : enabled) {
+            if (!active.contains(channel)) {
+                channel.start(frames, remaining);
+            }
+        }
+
+        active.clear();
+        active.addAll(enabled);
+    }
+
+    public void stop() {
+        for (DisplayChannel channel : active) {
+            if (channel.isRunning()) {
+                channel.stop();
+            }
+        }
+
+        active.clear();
+    }
+
+    public boolean isRunning() {
+        return !active.isEmpty();
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onJoin(@NotNull PlayerJoinEvent event) {
+        show(event.getPlayer(), event.getPlayer().getLocale());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onLocaleChange(@NotNull PlayerLocaleChangeEvent event) {
+        show(event.getPlayer(), event.getLocale());
+    }
+
+    private void show(@NotNull Player player, @NotNull String clientLocale) {
+        // Unchanged payloads are not sent again, so players who join in between get the current one here.
+        if (active.contains(actionBar)) {
+            actionBar.show(player, clientLocale);
+        }
+
+        if (active.contains(title)) {
+            title.show(player, clientLocale);
+        }
+    }
+
+    @NotNull
+    private List<DisplayChannel> getEnabledChannels() {
+        GeneralSettings settings = plugin.getGeneralConfig().getSettings();
+        List<DisplayChannel> channels = new ArrayList<>(4);
+
+        if (settings.isChatEnabled()) {
+            channels.add(chat);
+        }
+
+        if (settings.isBossBarEnabled()) {
+            channels.add(bossBar);
+        }
+
+        if (settings.isActionBarEnabled()) {
+            channels.add(actionBar);
+        }
+
+        if (settings.isTitleEnabled()) {
+            channels.add(title);
+        }
+
+        return channels;
+    }
+}
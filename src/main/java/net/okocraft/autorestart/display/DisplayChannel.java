@@ -0,0 +1,17 @@
+package net.okocraft.autorestart.display;
+
+import net.okocraft.autorestart.tasks.CountdownFrames;
+import org.jetbrains.annotations.NotNull;
+
+public interface DisplayChannel {
+
+    void start(@NotNull CountdownFrames frames, long time);
+
+    void update(long remaining);
+
+    void refresh(@NotNull CountdownFrames frames);
+
+    void stop();
+
+    boolean isRunning();
+}
@@ -0,0 +1,122 @@
+package net.okocraft.autorestart.display;
+
+import net.okocraft.autorestart.AutoRestartPlugin;
+import net.okocraft.autorestart.config.MessageConfig;
+import net.okocraft.autorestart.tasks.CountdownFrames;
+import org.bukkit.entity.Player;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+abstract class PlayerChannel<T> implements DisplayChannel {
+
+    protected final AutoRestartPlugin plugin;
+    private final Map<String, T> lastPayloads = new HashMap<>();
+    private final Map<String, Long> lastSent = new HashMap<>();
+    private final Set<String> checked = new HashSet<>();
+    private final Set<String> changed = new HashSet<>();
+
+    protected CountdownFrames frames;
+    private long lastRemaining = -1;
+
+    PlayerChannel(@NotNull AutoRestartPlugin plugin) {
+        this.plugin = plugin;
+    }
+
+    @Override
+    public void start(@NotNull CountdownFrames frames, long time) {
+        this.frames = frames;
+        update(time);
+    }
+
+    @Override
+    public void update(long remaining) {
+        if (!isRunning() || !isDue(remaining)) {
+            return;
+        }
+
+        lastRemaining = remaining;
+
+        MessageConfig messageConfig = plugin.getMessageConfig();
+        checked.clear();
+        changed.clear();
+
+        // Each language is rendered once per update, and the payload is taken from lastPayloads.
+        for (Player player : plugin.getServer().getOnlinePlayers()) {
+            String locale = messageConfig.resolveLocale(player.getLocale());
+
+            if (checked.add(locale) && needsSending(locale, render(locale, remaining), remaining)) {
+                changed.add(locale);
+            }
+
+            if (changed.contains(locale)) {
+                send(player, lastPayloads.get(locale));
+            }
+        }
+    }
+
+    public void show(@NotNull Player player, @NotNull String clientLocale) {
+        if (!isRunning() || lastRemaining < 0) {
+            return;
+        }
+
+        String locale = plugin.getMessageConfig().resolveLocale(clientLocale);
+        T payload = lastPayloads.get(locale);
+
+        if (payload == null) {
+            payload = render(locale, lastRemaining);
+            lastPayloads.put(locale, payload);
+            lastSent.put(locale, lastRemaining);
+        }
+
+        send(player, payload);
+    }
+
+    @Override
+    public void refresh(@NotNull CountdownFrames frames) {
+        if (isRunning()) {
+            this.frames = frames;
+        }
+    }
+
+    @Override
+    public void stop() {
+        frames = null;
+        lastRemaining = -1;
+        lastPayloads.clear();
+        lastSent.clear();
+    }
+
+    @Override
+    public boolean isRunning() {
+        return frames != null;
+    }
+
+    protected abstract boolean isDue(long remaining);
+
+    @NotNull
+    protected abstract T render(@NotNull String locale, long remaining);
+
+    protected abstract void send(@NotNull Player player, @NotNull T payload);
+
+    protected long getRefreshSeconds() {
+        return 0L;
+    }
+
+    private boolean needsSending(@NotNull String locale, @NotNull T payload, long remaining) {
+        Long sentAt = lastSent.get(locale);
+        long refresh = getRefreshSeconds();
+
+        // Unchanged text is only sent again when the client would have faded it out by now.
+        if (payload.equals(lastPayloads.get(locale)) && (refresh <= 0 || sentAt == null || sentAt - remaining < refresh)) {
+            return false;
+        }
+
+        lastPayloads.put(locale, payload);
+        lastSent.put(locale, remaining);
+        return true;
+    }
+}
@@ -0,0 +1,73 @@
+package net.okocraft.autorestart.display;
+
+import net.okocraft.autorestart.AutoRestartPlugin;
+import net.okocraft.autorestart.config.GeneralSettings;
+import org.bukkit.entity.Player;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Objects;
+
+public class TitleChannel extends PlayerChannel<TitleChannel.Title> {
+
+    private static final int FADE_IN_TICKS = 0;
+    private static final int STAY_TICKS = 30;
+    private static final int FADE_OUT_TICKS = 10;
+    // Sent again before the fade out ends, so that a title that does not change stays on screen.
+    private static final long REFRESH_SECONDS = 1L;
+
+    public TitleChannel(@NotNull AutoRestartPlugin plugin) {
+        super(plugin);
+    }
+
+    @Override
+    protected boolean isDue(long remaining) {
+        GeneralSettings settings = plugin.getGeneralConfig().getSettings();
+        return remaining <= settings.getTitleFrom() && remaining % settings.getTitleInterval() == 0;
+    }
+
+    @Override
+    @NotNull
+    protected Title render(@NotNull String locale, long remaining) {
+        return new Title(frames.getTitle(locale, remaining), frames.getSubtitle(locale, remaining));
+    }
+
+    @Override
+    protected void send(@NotNull Player player, @NotNull Title payload) {
+        player.sendTitle(payload.title, payload.subtitle, FADE_IN_TICKS, STAY_TICKS, FADE_OUT_TICKS);
+    }
+
+    @Override
+    protected long getRefreshSeconds() {
+        return REFRESH_SECONDS;
+    }
+
+    static final class Title {
+
+        private final String title;
+        private final String subtitle;
+
+        private Title(@NotNull String title, @NotNull String subtitle) {
+            this.title = title;
+            this.subtitle = subtitle;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+
+            if (!(o instanceof Title)) {
+                return false;
+            }
+
+            Title other = (Title) o;
+            return title.equals(other.title) && subtitle.equals(other.subtitle);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(title, subtitle);
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package net.okocraft.autorestart.event;
+
+import net.okocraft.autorestart.lifecycle.RestartState;
+import org.bukkit.event.Event;
+import org.bukkit.event.HandlerList;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.time.ZonedDateTime;
+
+public class RestartStateChangeEvent extends Event {
+
+    private static final HandlerList HANDLERS = new HandlerList();
+
+    private final RestartState previousState;
+    private final RestartState state;
+    private final ZonedDateTime restartTime;
+    private final String reason;
+
+    public RestartStateChangeEvent(@NotNull RestartState previousState, @NotNull RestartState state,
+                                   @Nullable ZonedDateTime restartTime, @Nullable String reason, boolean async) {
+        super(async);
+        this.previousState = previousState;
+        this.state = state;
+        this.restartTime = restartTime;
+        this.reason = reason;
+    }
+
+    @NotNull
+    public static HandlerList getHandlerList() {
+        return HANDLERS;
+    }
+
+    @NotNull
+    public RestartState getPreviousState() {
+        return previousState;
+    }
+
+    @NotNull
+    public RestartState getState() {
+        return state;
+    }
+
+    @Nullable
+    public ZonedDateTime getRestartTime() {
+        return restartTime;
+    }
+
+    @Nullable
+    public String getReason() {
+        return reason;
+    }
+
+    @Override
+    @NotNull
+    public HandlerList getHandlers() {
+        return HANDLERS;
+    }
+}
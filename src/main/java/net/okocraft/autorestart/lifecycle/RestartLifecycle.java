@@ -0,0 +1,129 @@
+package net.okocraft.autorestart.lifecycle;
+
+import net.okocraft.autorestart.AutoRestartPlugin;
+import net.okocraft.autorestart.event.RestartStateChangeEvent;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.time.Duration;
+import java.time.ZonedDateTime;
+import java.util.concurrent.atomic.AtomicReference;
+
+public class RestartLifecycle {
+
+    private final AutoRestartPlugin plugin;
+    private final AtomicReference<Snapshot> current = new AtomicReference<>(Snapshot.IDLE);
+
+    public RestartLifecycle(@NotNull AutoRestartPlugin plugin) {
+        this.plugin = plugin;
+    }
+
+    @NotNull
+    public RestartState getState() {
+        return current.get().state;
+    }
+
+    @Nullable
+    public ZonedDateTime getRestartTime() {
+        return current.get().restartTime;
+    }
+
+    @Nullable
+    public String getReason() {
+        return current.get().reason;
+    }
+
+    public long getRemainingSeconds() {
+        ZonedDateTime restartTime = current.get().restartTime;
+
+        if (restartTime == null) {
+            return -1L;
+        }
+
+        return Math.max(0L, Duration.between(plugin.getTaskScheduler().getClock().instant(), restartTime.toInstant()).getSeconds());
+    }
+
+    public boolean isRestartWithin(long seconds) {
+        Snapshot snapshot = current.get();
+
+        // A held restart has no time to count on, its scheduled time may be long gone.
+        if (snapshot.state == RestartState.HELD) {
+            return false;
+        }
+
+        return snapshot.state.isCommitted() || (snapshot.restartTime != null && getRemainingSeconds() <= seconds);
+    }
+
+    public void schedule(@NotNull ZonedDateTime restartTime, @Nullable String reason) {
+        set(new Snapshot(RestartState.SCHEDULED, restartTime, reason));
+    }
+
+    public void begin(@NotNull RestartState state) {
+        Snapshot previous;
+        Snapshot next;
+
+        do {
+            previous = current.get();
+            ZonedDateTime restartTime = previous.restartTime != null
+                    ? previous.restartTime : ZonedDateTime.now(plugin.getTaskScheduler().getClock());
+            next = new Snapshot(state, restartTime, previous.reason);
+        } while (!current.compareAndSet(previous, next));
+
+        fire(previous, next);
+    }
+
+    public boolean transition(@NotNull RestartState expected, @NotNull RestartState state) {
+        Snapshot previous;
+        Snapshot next;
+
+        do {
+            previous = current.get();
+
+            if (previous.state != expected) {
+                return false;
+            }
+
+            next = new Snapshot(state, previous.restartTime, previous.reason);
+        } while (!current.compareAndSet(previous, next));
+
+        fire(previous, next);
+        return true;
+    }
+
+    public void reset() {
+        set(Snapshot.IDLE);
+    }
+
+    private void set(@NotNull Snapshot next) {
+        fire(current.getAndSet(next), next);
+    }
+
+    private void fire(@NotNull Snapshot previous, @NotNull Snapshot next) {
+        if (previous.state == next.state && previous.restartTime == next.restartTime) {
+            return;
+        }
+
+        // Events are not fired while the plugin is disabling, listeners may already be gone.
+        if (!plugin.isEnabled()) {
+            return;
+        }
+
+        plugin.getServer().getPluginManager().callEvent(new RestartStateChangeEvent(
+                previous.state, next.state, next.restartTime, next.reason, !plugin.getServer().isPrimaryThread()));
+    }
+
+    private static final class Snapshot {
+
+        private static final Snapshot IDLE = new Snapshot(RestartState.IDLE, null, null);
+
+        private final RestartState state;
+        private final ZonedDateTime restartTime;
+        private final String reason;
+
+        private Snapshot(@NotNull RestartState state, @Nullable ZonedDateTime restartTime, @Nullable String reason) {
+            this.state = state;
+            this.restartTime = restartTime;
+            this.reason = reason;
+        }
+    }
+}
@@ -0,0 +1,19 @@
+package net.okocraft.autorestart.lifecycle;
+
+public enum RestartState {
+    IDLE,
+    SCHEDULED,
+    HELD,
+    COUNTDOWN,
+    PRE_COMMANDS,
+    KICKING,
+    RESTARTING;
+
+    public boolean isPending() {
+        return this != IDLE;
+    }
+
+    public boolean isCommitted() {
+        return this == PRE_COMMANDS || this == KICKING || this == RESTARTING;
+    }
+}
@@ -0,0 +1,73 @@
+package net.okocraft.autorestart.metrics;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+public final class Histogram {
+
+    private static final int BUCKETS = 64;
+
+    private final AtomicLongArray buckets = new AtomicLongArray(BUCKETS);
+    private final LongAdder count = new LongAdder();
+    private final LongAdder sum = new LongAdder();
+    private final AtomicLong max = new AtomicLong();
+    private final AtomicLong last = new AtomicLong();
+
+    public void record(long nanos) {
+        long value = Math.max(0L, nanos);
+
+        // Bucket i holds values in [2^(i-1), 2^i), so a percentile is accurate to a factor of two.
+        buckets.incrementAndGet(BUCKETS - Long.numberOfLeadingZeros(value));
+        count.increment();
+        sum.add(value);
+        max.accumulateAndGet(value, Math::max);
+        last.set(value);
+    }
+
+    public long getCount() {
+        return count.sum();
+    }
+
+    public long getLast() {
+        return last.get();
+    }
+
+    public long getMax() {
+        return max.get();
+    }
+
+    public double getMean() {
+        long count = getCount();
+        return count == 0 ? 0.0 : (double) sum.sum() / count;
+    }
+
+    public long getPercentile(double percentile) {
+        long count = getCount();
+        if (count == 0) {
+            return 0L;
+        }
+
+        long target = (long) Math.ceil(count * percentile);
+        long seen = 0L;
+
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += buckets.get(i);
+            if (target <= seen) {
+                return i == BUCKETS - 1 ? getMax() : Math.min(1L << i, getMax());
+            }
+        }
+
+        return getMax();
+    }
+
+    public void reset() {
+        for (int i = 0; i < BUCKETS; i++) {
+            buckets.set(i, 0L);
+        }
+        count.reset();
+        sum.reset();
+        max.set(0L);
+        last.set(0L);
+    }
+}
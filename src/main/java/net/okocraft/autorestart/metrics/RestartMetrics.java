@@ -0,0 +1,176 @@
+package net.okocraft.autorestart.metrics;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+public class RestartMetrics implements RestartMetricsMBean {
+
+    private static final String OBJECT_NAME = "net.okocraft.autorestart:type=RestartMetrics";
+    private static final double NANOS_PER_MILLI = TimeUnit.MILLISECONDS.toNanos(1);
+
+    private final Histogram tickJitter = new Histogram();
+    private final Histogram frameRender = new Histogram();
+    private final Histogram dispatch = new Histogram();
+    private final Histogram commandsBefore = new Histogram();
+    private final Histogram kick = new Histogram();
+    private final Histogram shutdown = new Histogram();
+    private final LongAdder broadcasts = new LongAdder();
+    private final LongAdder restarts = new LongAdder();
+
+    private volatile long restartDispatchedAt = -1L;
+
+    public void register(@NotNull Logger logger) {
+        try {
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            ObjectName name = new ObjectName(OBJECT_NAME);
+
+            if (server.isRegistered(name)) {
+                server.unregisterMBean(name);
+            }
+
+            server.registerMBean(this, name);
+        } catch (JMException e) {
+            logger.log(Level.WARNING, "Could not register the metrics MBean", e);
+        }
+    }
+
+    public void unregister() {
+        try {
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            ObjectName name = new ObjectName(OBJECT_NAME);
+
+            if (server.isRegistered(name)) {
+                server.unregisterMBean(name);
+            }
+        } catch (JMException ignored) {
+        }
+    }
+
+    @NotNull
+    public Histogram getTickJitter() {
+        return tickJitter;
+    }
+
+    @NotNull
+    public Histogram getFrameRender() {
+        return frameRender;
+    }
+
+    @NotNull
+    public Histogram getDispatch() {
+        return dispatch;
+    }
+
+    @NotNull
+    public Histogram getCommandsBefore() {
+        return commandsBefore;
+    }
+
+    @NotNull
+    public Histogram getKick() {
+        return kick;
+    }
+
+    @NotNull
+    public Histogram getShutdown() {
+        return shutdown;
+    }
+
+    public void incrementBroadcasts() {
+        broadcasts.increment();
+    }
+
+    public void markRestartDispatched() {
+        restarts.increment();
+        restartDispatchedAt = System.nanoTime();
+    }
+
+    public void clearRestartDispatched() {
+        restartDispatchedAt = -1L;
+    }
+
+    public long getNanosSinceRestartDispatched() {
+        long dispatchedAt = restartDispatchedAt;
+        return dispatchedAt == -1L ? -1L : System.nanoTime() - dispatchedAt;
+    }
+
+    @Override
+    public long getCountdownTicks() {
+        return tickJitter.getCount();
+    }
+
+    @Override
+    public double getTickJitterMeanMillis() {
+        return tickJitter.getMean() / NANOS_PER_MILLI;
+    }
+
+    @Override
+    public double getTickJitterP99Millis() {
+        return tickJitter.getPercentile(0.99) / NANOS_PER_MILLI;
+    }
+
+    @Override
+    public double getTickJitterMaxMillis() {
+        return tickJitter.getMax() / NANOS_PER_MILLI;
+    }
+
+    @Override
+    public double getFrameRenderMeanMillis() {
+        return frameRender.getMean() / NANOS_PER_MILLI;
+    }
+
+    @Override
+    public double getDispatchMeanMillis() {
+        return dispatch.getMean() / NANOS_PER_MILLI;
+    }
+
+    @Override
+    public double getDispatchMaxMillis() {
+        return dispatch.getMax() / NANOS_PER_MILLI;
+    }
+
+    @Override
+    public long getBroadcasts() {
+        return broadcasts.sum();
+    }
+
+    @Override
+    public long getRestarts() {
+        return restarts.sum();
+    }
+
+    @Override
+    public double getLastCommandsBeforeMillis() {
+        return commandsBefore.getLast() / NANOS_PER_MILLI;
+    }
+
+    @Override
+    public double getLastKickMillis() {
+        return kick.getLast() / NANOS_PER_MILLI;
+    }
+
+    @Override
+    public double getLastShutdownMillis() {
+        return shutdown.getLast() / NANOS_PER_MILLI;
+    }
+
+    @Override
+    public void reset() {
+        tickJitter.reset();
+        frameRender.reset();
+        dispatch.reset();
+        commandsBefore.reset();
+        kick.reset();
+        shutdown.reset();
+        broadcasts.reset();
+        restarts.reset();
+    }
+}
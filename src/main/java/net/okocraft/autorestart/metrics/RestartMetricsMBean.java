@@ -0,0 +1,30 @@
+package net.okocraft.autorestart.metrics;
+
+public interface RestartMetricsMBean {
+
+    long getCountdownTicks();
+
+    double getTickJitterMeanMillis();
+
+    double getTickJitterP99Millis();
+
+    double getTickJitterMaxMillis();
+
+    double getFrameRenderMeanMillis();
+
+    double getDispatchMeanMillis();
+
+    double getDispatchMaxMillis();
+
+    long getBroadcasts();
+
+    long getRestarts();
+
+    double getLastCommandsBeforeMillis();
+
+    double getLastKickMillis();
+
+    double getLastShutdownMillis();
+
+    void reset();
+}
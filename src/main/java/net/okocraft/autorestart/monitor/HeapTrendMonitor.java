@@ -0,0 +1,230 @@
+package net.okocraft.autorestart.monitor;
+
+import com.sun.management.GarbageCollectionNotificationInfo;
+import net.okocraft.autorestart.AutoRestartPlugin;
+import net.okocraft.autorestart.config.GeneralSettings;
+import net.okocraft.autorestart.lifecycle.RestartState;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.lang.management.MemoryUsage;
+import java.time.Instant;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import javax.management.ListenerNotFoundException;
+import javax.management.Notification;
+import javax.management.NotificationEmitter;
+import javax.management.NotificationFilter;
+import javax.management.NotificationListener;
+import javax.management.openmbean.CompositeData;
+
+public class HeapTrendMonitor implements NotificationListener {
+
+    private static final NotificationFilter GC_NOTIFICATIONS =
+            notification -> GarbageCollectionNotificationInfo.GARBAGE_COLLECTION_NOTIFICATION.equals(notification.getType());
+
+    private final AutoRestartPlugin plugin;
+    private final List<NotificationEmitter> emitters = new ArrayList<>();
+
+    private volatile MemoryPoolMXBean oldGen;
+    private volatile long predictedSeconds = -1L;
+
+    private long origin;
+    private double decay;
+    private double weight;
+    private double sumX;
+    private double sumY;
+    private double sumXX;
+    private double sumXY;
+    private int samples;
+    private boolean warned;
+    private long lastTriggered = -1L;
+
+    public HeapTrendMonitor(@NotNull AutoRestartPlugin plugin) {
+        this.plugin = plugin;
+    }
+
+    public synchronized void start() {
+        stop();
+
+        GeneralSettings settings = plugin.getGeneralConfig().getSettings();
+
+        if (!settings.isMemoryEnabled()) {
+            return;
+        }
+
+        MemoryPoolMXBean pool = findOldGenPool();
+
+        if (pool == null) {
+            plugin.getLogger().warning("Could not find the old generation heap pool, the memory trigger is disabled.");
+            return;
+        }
+
+        oldGen = pool;
+        origin = System.nanoTime();
+        decay = Math.pow(0.5, 1.0 / settings.getMemoryHalfLife());
+        weight = sumX = sumY = sumXX = sumXY = 0.0;
+        samples = 0;
+        warned = false;
+
+        for (GarbageCollectorMXBean collector : ManagementFactory.getGarbageCollectorMXBeans()) {
+            if (collector instanceof NotificationEmitter
+                    && Arrays.asList(collector.getMemoryPoolNames()).contains(pool.getName())) {
+                NotificationEmitter emitter = (NotificationEmitter) collector;
+                emitter.addNotificationListener(this, GC_NOTIFICATIONS, null);
+                emitters.add(emitter);
+            }
+        }
+    }
+
+    public synchronized void stop() {
+        for (NotificationEmitter emitter : emitters) {
+            try {
+                emitter.removeNotificationListener(this);
+            } catch (ListenerNotFoundException ignored) {
+            }
+        }
+
+        emitters.clear();
+        oldGen = null;
+        predictedSeconds = -1L;
+    }
+
+    public boolean isRunning() {
+        return oldGen != null;
+    }
+
+    public long getPredictedSeconds() {
+        return predictedSeconds;
+    }
+
+    @Override
+    public void handleNotification(@NotNull Notification notification, @Nullable Object handback) {
+        MemoryPoolMXBean pool = oldGen;
+
+        if (pool == null) {
+            return;
+        }
+
+        GarbageCollectionNotificationInfo info =
+                GarbageCollectionNotificationInfo.from((CompositeData) notification.getUserData());
+        MemoryUsage after = info.getGcInfo().getMemoryUsageAfterGc().get(pool.getName());
+
+        if (after != null) {
+            record(System.nanoTime(), after.getUsed(), getMax(pool, after));
+        }
+    }
+
+    private synchronized void record(long now, long used, long max) {
+        // Exponentially weighted least squares over (seconds, bytes), so older collections fade out
+        // and each sample costs a few multiplications.
+        double x = (double) (now - origin) / TimeUnit.SECONDS.toNanos(1);
+        double y = used;
+
+        weight = weight * decay + 1.0;
+        sumX = sumX * decay + x;
+        sumY = sumY * decay + y;
+        sumXX = sumXX * decay + x * x;
+        sumXY = sumXY * decay + x * y;
+        samples++;
+
+        GeneralSettings settings = plugin.getGeneralConfig().getSettings();
+        double denominator = weight * sumXX - sumX * sumX;
+
+        if (samples < settings.getMemoryMinSamples() || denominator <= 0.0) {
+            return;
+        }
+
+        double slope = (weight * sumXY - sumX * sumY) / denominator;
+
+        if (slope <= 0.0) {
+            predictedSeconds = -1L;
+            return;
+        }
+
+        double intercept = (sumY - slope * sumX) / weight;
+        double ceiling = max * settings.getMemoryCeiling() / 100.0;
+        long seconds = (long) Math.max(0.0, (ceiling - intercept) / slope - x);
+
+        predictedSeconds = seconds;
+        check(now, seconds, settings);
+    }
+
+    private void check(long now, long seconds, @NotNull GeneralSettings settings) {
+        Instant ceilingTime = plugin.getTaskScheduler().getClock().instant().plusSeconds(seconds);
+        ZonedDateTime restartTime = plugin.getRestartTime();
+
+        if (restartTime != null && plugin.getLifecycle().getState() != RestartState.HELD
+                && !ceilingTime.isBefore(restartTime.toInstant())) {
+            return;
+        }
+
+        if (!warned) {
+            warned = true;
+            plugin.getLogger().warning("Old generation is predicted to reach " + settings.getMemoryCeiling()
+                    + "% in " + seconds + " seconds, before the next restart.");
+        }
+
+        long noticeTime = settings.getMemoryNoticeTime();
+
+        if (settings.getMemoryMargin() + noticeTime < seconds) {
+            return;
+        }
+
+        if (lastTriggered != -1L && now - lastTriggered < TimeUnit.SECONDS.toNanos(settings.getMemoryCooldown())) {
+            return;
+        }
+
+        lastTriggered = now;
+
+        // Notifications arrive on a JMX thread.
+        plugin.getServer().getScheduler().runTask(plugin, () -> {
+            if (plugin.getLifecycle().isRestartWithin(noticeTime)) {
+                return;
+            }
+
+            plugin.getLogger().warning("Old generation will reach " + settings.getMemoryCeiling()
+                    + "% in about " + seconds + " seconds, scheduling a restart.");
+            plugin.scheduleTriggeredRestart(noticeTime, plugin.getMessageConfig().getMemoryRestartReason());
+        });
+    }
+
+    private static long getMax(@NotNull MemoryPoolMXBean pool, @NotNull MemoryUsage usage) {
+        if (usage.getMax() != -1L) {
+            return usage.getMax();
+        }
+
+        long max = pool.getUsage().getMax();
+        return max != -1L ? max : Runtime.getRuntime().maxMemory();
+    }
+
+    @Nullable
+    private static MemoryPoolMXBean findOldGenPool() {
+        List<MemoryPoolMXBean> heapPools = new ArrayList<>();
+
+        for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+            if (pool.getType() != MemoryType.HEAP || !pool.isCollectionUsageThresholdSupported()) {
+                continue;
+            }
+
+            String name = pool.getName();
+
+            // G1, Parallel and CMS call it "Old Gen", Serial "Tenured Gen".
+            if (name.contains("Old") || name.contains("Tenured")) {
+                return pool;
+            }
+
+            heapPools.add(pool);
+        }
+
+        // ZGC and Shenandoah have a single heap pool.
+        return heapPools.size() == 1 ? heapPools.get(0) : null;
+    }
+}
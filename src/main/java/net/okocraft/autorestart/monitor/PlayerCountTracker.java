@@ -0,0 +1,58 @@
+package net.okocraft.autorestart.monitor;
+
+import net.okocraft.autorestart.AutoRestartPlugin;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.event.player.PlayerJoinEvent;
+import org.bukkit.event.player.PlayerQuitEvent;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntConsumer;
+
+public class PlayerCountTracker implements Listener {
+
+    private final AutoRestartPlugin plugin;
+    private final AtomicInteger count = new AtomicInteger();
+    private final List<IntConsumer> listeners = new CopyOnWriteArrayList<>();
+
+    public PlayerCountTracker(@NotNull AutoRestartPlugin plugin) {
+        this.plugin = plugin;
+    }
+
+    public void start() {
+        count.set(plugin.getServer().getOnlinePlayers().size());
+        plugin.getServer().getPluginManager().registerEvents(this, plugin);
+    }
+
+    public int getCount() {
+        return count.get();
+    }
+
+    public void addListener(@NotNull IntConsumer listener) {
+        listeners.add(listener);
+    }
+
+    public void removeListener(@NotNull IntConsumer listener) {
+        listeners.remove(listener);
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onJoin(@NotNull PlayerJoinEvent event) {
+        notifyListeners(count.incrementAndGet());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onQuit(@NotNull PlayerQuitEvent event) {
+        notifyListeners(count.decrementAndGet());
+    }
+
+    private void notifyListeners(int current) {
+        for (IntConsumer listener : listeners) {
+            listener.accept(current);
+        }
+    }
+}
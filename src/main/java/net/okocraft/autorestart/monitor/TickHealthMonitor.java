@@ -0,0 +1,146 @@
+package net.okocraft.autorestart.monitor;
+
+import net.okocraft.autorestart.AutoRestartPlugin;
+import net.okocraft.autorestart.config.GeneralSettings;
+import org.bukkit.scheduler.BukkitTask;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.concurrent.TimeUnit;
+
+public class TickHealthMonitor implements Runnable {
+
+    private static final long TICKS_PER_SECOND = 20L;
+
+    private final AutoRestartPlugin plugin;
+
+    private BukkitTask task;
+    private long[] intervals = new long[0];
+    private int position;
+    private int count;
+    private long sum;
+    private long lastTick;
+
+    private long breachStart = -1L;
+    private long lastTriggered = -1L;
+
+    public TickHealthMonitor(@NotNull AutoRestartPlugin plugin) {
+        this.plugin = plugin;
+    }
+
+    public void start() {
+        stop();
+
+        GeneralSettings settings = plugin.getGeneralConfig().getSettings();
+        int size = (int) Math.max(TICKS_PER_SECOND, settings.getHealthWindow() * TICKS_PER_SECOND);
+
+        if (intervals.length != size) {
+            intervals = new long[size];
+        }
+
+        position = 0;
+        count = 0;
+        sum = 0;
+        lastTick = System.nanoTime();
+        breachStart = -1L;
+
+        task = plugin.getServer().getScheduler().runTaskTimer(plugin, this, 1L, 1L);
+    }
+
+    public void stop() {
+        if (task != null) {
+            task.cancel();
+            task = null;
+        }
+    }
+
+    public boolean isRunning() {
+        return task != null;
+    }
+
+    public double getAverageTickMillis() {
+        return count == 0 ? 50.0 : (double) sum / count / TimeUnit.MILLISECONDS.toNanos(1);
+    }
+
+    public double getRecentTickMillis(int ticks) {
+        int recent = Math.min(ticks, count);
+
+        if (recent == 0) {
+            return 50.0;
+        }
+
+        long total = 0;
+        for (int i = 1; i <= recent; i++) {
+            total += intervals[Math.floorMod(position - i, intervals.length)];
+        }
+
+        return (double) total / recent / TimeUnit.MILLISECONDS.toNanos(1);
+    }
+
+    public double getTps() {
+        return count == 0 ? 20.0 : Math.min(20.0, 1000.0 / getAverageTickMillis());
+    }
+
+    public boolean isWindowFull() {
+        return count == intervals.length;
+    }
+
+    @Override
+    public void run() {
+        long now = System.nanoTime();
+        long interval = now - lastTick;
+        lastTick = now;
+
+        if (count == intervals.length) {
+            sum -= intervals[position];
+        } else {
+            count++;
+        }
+
+        intervals[position] = interval;
+        sum += interval;
+        position = (position + 1) % intervals.length;
+
+        // A tick takes at least 50ms, so check the thresholds about once a second.
+        if (position % TICKS_PER_SECOND == 0 && plugin.getGeneralConfig().getSettings().isHealthEnabled()) {
+            check(now);
+        }
+    }
+
+    private void check(long now) {
+        if (!isWindowFull()) {
+            return;
+        }
+
+        GeneralSettings settings = plugin.getGeneralConfig().getSettings();
+        double tps = getTps();
+
+        if (tps < settings.getHealthMinTps()) {
+            if (breachStart == -1L) {
+                breachStart = now;
+            }
+        } else if (settings.getHealthMinTps() + settings.getHealthHysteresis() <= tps) {
+            breachStart = -1L;
+        }
+
+        if (breachStart == -1L || now - breachStart < TimeUnit.SECONDS.toNanos(settings.getHealthDuration())) {
+            return;
+        }
+
+        if (lastTriggered != -1L && now - lastTriggered < TimeUnit.SECONDS.toNanos(settings.getHealthCooldown())) {
+            return;
+        }
+
+        long noticeTime = settings.getHealthNoticeTime();
+
+        if (plugin.getLifecycle().isRestartWithin(noticeTime)) {
+            return;
+        }
+
+        lastTriggered = now;
+        breachStart = -1L;
+
+        plugin.getLogger().warning(String.format("TPS has been below %.1f for %d seconds (%.2f), scheduling a restart.",
+                settings.getHealthMinTps(), settings.getHealthDuration(), tps));
+        plugin.scheduleTriggeredRestart(noticeTime, plugin.getMessageConfig().getLowTpsRestartReason());
+    }
+}
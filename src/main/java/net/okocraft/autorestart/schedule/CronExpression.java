@@ -0,0 +1,174 @@
+package net.okocraft.autorestart.schedule;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.List;
+import java.util.Locale;
+
+public final class CronExpression {
+
+    private static final DateTimeFormatter TIME_FORMATTER = DateTimeFormatter.ofPattern("H:mm");
+    private static final List<String> MONTH_NAMES =
+            List.of("JAN", "FEB", "MAR", "APR", "MAY", "JUN", "JUL", "AUG", "SEP", "OCT", "NOV", "DEC");
+    private static final List<String> DAY_NAMES = List.of("SUN", "MON", "TUE", "WED", "THU", "FRI", "SAT");
+
+    private final String source;
+    private final long minutes;
+    private final long hours;
+    private final long daysOfMonth;
+    private final long months;
+    private final long daysOfWeek;
+    private final boolean anyDayOfMonth;
+    private final boolean anyDayOfWeek;
+
+    private CronExpression(@NotNull String source, long minutes, long hours, long daysOfMonth, long months,
+                           long daysOfWeek, boolean anyDayOfMonth, boolean anyDayOfWeek) {
+        this.source = source;
+        this.minutes = minutes;
+        this.hours = hours;
+        this.daysOfMonth = daysOfMonth;
+        this.months = months;
+        this.daysOfWeek = daysOfWeek;
+        this.anyDayOfMonth = anyDayOfMonth;
+        this.anyDayOfWeek = anyDayOfWeek;
+    }
+
+    /**
+     * Compiles either a daily {@code HH:mm} time or a five-field cron expression
+     * ({@code minute hour day-of-month month day-of-week}).
+     */
+    @NotNull
+    public static CronExpression compile(@NotNull String expression) throws IllegalArgumentException {
+        String trimmed = expression.trim();
+        String[] fields = trimmed.split("\\s+");
+
+        if (fields.length == 1) {
+            try {
+                LocalTime time = LocalTime.parse(trimmed, TIME_FORMATTER);
+                return new CronExpression(trimmed, 1L << time.getMinute(), 1L << time.getHour(),
+                        range(1, 31), range(1, 12), range(0, 6), true, true);
+            } catch (DateTimeParseException e) {
+                throw new IllegalArgumentException("Invalid time format: " + expression);
+            }
+        }
+
+        if (fields.length != 5) {
+            throw new IllegalArgumentException("Cron expression must have 5 fields: " + expression);
+        }
+
+        long daysOfWeek = parseField(fields[4], 0, 7, DAY_NAMES, 0);
+        if ((daysOfWeek & (1L << 7)) != 0) {
+            daysOfWeek = (daysOfWeek & ~(1L << 7)) | 1L;
+        }
+
+        return new CronExpression(
+                trimmed,
+                parseField(fields[0], 0, 59, List.of(), 0),
+                parseField(fields[1], 0, 23, List.of(), 0),
+                parseField(fields[2], 1, 31, List.of(), 0),
+                parseField(fields[3], 1, 12, MONTH_NAMES, 1),
+                daysOfWeek,
+                // As in cron, a field starting with * counts as unrestricted, steps included.
+                fields[2].startsWith("*"),
+                fields[4].startsWith("*")
+        );
+    }
+
+    public boolean matches(@NotNull LocalDate date) {
+        if ((months & (1L << date.getMonthValue())) == 0) {
+            return false;
+        }
+
+        boolean dayOfMonth = (daysOfMonth & (1L << date.getDayOfMonth())) != 0;
+        boolean dayOfWeek = (daysOfWeek & (1L << (date.getDayOfWeek().getValue() % 7))) != 0;
+
+        // As in cron, a restricted day-of-month and day-of-week match if either of them does.
+        if (anyDayOfMonth || anyDayOfWeek) {
+            return dayOfMonth && dayOfWeek;
+        } else {
+            return dayOfMonth || dayOfWeek;
+        }
+    }
+
+    public long getHours() {
+        return hours;
+    }
+
+    public long getMinutes() {
+        return minutes;
+    }
+
+    @NotNull
+    public String getSource() {
+        return source;
+    }
+
+    private static long parseField(@NotNull String field, int min, int max,
+                                   @NotNull List<String> names, int nameOffset) throws IllegalArgumentException {
+        long bits = 0L;
+
+        for (String part : field.split(",")) {
+            int step = 1;
+            int slash = part.indexOf('/');
+            if (slash != -1) {
+                step = parseNumber(part.substring(slash + 1), List.of(), 0, field);
+                if (step < 1) {
+                    throw new IllegalArgumentException("Invalid step in cron field: " + field);
+                }
+                part = part.substring(0, slash);
+            }
+
+            int from;
+            int to;
+            if (part.equals("*")) {
+                from = min;
+                to = max;
+            } else {
+                int dash = part.indexOf('-');
+                if (dash != -1) {
+                    from = parseNumber(part.substring(0, dash), names, nameOffset, field);
+                    to = parseNumber(part.substring(dash + 1), names, nameOffset, field);
+                } else {
+                    from = parseNumber(part, names, nameOffset, field);
+                    to = slash != -1 ? max : from;
+                }
+            }
+
+            if (from < min || max < to || to < from) {
+                throw new IllegalArgumentException("Value out of range in cron field: " + field);
+            }
+
+            for (int i = from; i <= to; i += step) {
+                bits |= 1L << i;
+            }
+        }
+
+        return bits;
+    }
+
+    private static int parseNumber(@NotNull String value, @NotNull List<String> names, int nameOffset,
+                                   @NotNull String field) throws IllegalArgumentException {
+        int index = names.indexOf(value.toUpperCase(Locale.ROOT));
+        if (index != -1) {
+            return index + nameOffset;
+        }
+
+        try {
+            return Integer.parseInt(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid value in cron field: " + field);
+        }
+    }
+
+    private static long range(int from, int to) {
+        long bits = 0L;
+        for (int i = from; i <= to; i++) {
+            bits |= 1L << i;
+        }
+        return bits;
+    }
+}
@@ -0,0 +1,169 @@
+package net.okocraft.autorestart.schedule;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.time.DateTimeException;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.TreeSet;
+import java.util.logging.Logger;
+
+public final class RestartSchedule {
+
+    private static final int MAX_INDEX_SIZE = 1024;
+    private static final int MAX_SEARCH_DAYS = 4 * 366 + 1;
+
+    private final List<CronExpression> expressions;
+    private final ZoneId zone;
+    private final long[] exclusions;
+
+    private volatile Index index;
+
+    private RestartSchedule(@NotNull List<CronExpression> expressions, @NotNull ZoneId zone, @NotNull long[] exclusions) {
+        this.expressions = expressions;
+        this.zone = zone;
+        this.exclusions = exclusions;
+    }
+
+    @NotNull
+    public static RestartSchedule compile(@NotNull List<String> times, @NotNull String zoneId,
+                                          @NotNull List<String> exclusions, @NotNull Logger logger) {
+        List<CronExpression> expressions = new ArrayList<>(times.size());
+        for (String time : times) {
+            try {
+                expressions.add(CronExpression.compile(time));
+            } catch (IllegalArgumentException e) {
+                logger.severe(e.getMessage());
+            }
+        }
+
+        ZoneId zone = ZoneId.systemDefault();
+        if (!zoneId.isBlank()) {
+            try {
+                zone = ZoneId.of(zoneId.trim());
+            } catch (DateTimeException e) {
+                logger.severe("Invalid time zone: " + zoneId);
+            }
+        }
+
+        List<Long> windows = new ArrayList<>(exclusions.size() * 2);
+        for (String exclusion : exclusions) {
+            String[] pair = exclusion.split("/", 2);
+            try {
+                if (pair.length != 2) {
+                    throw new DateTimeException(exclusion);
+                }
+
+                long start = LocalDateTime.parse(pair[0].trim()).atZone(zone).toEpochSecond();
+                long end = LocalDateTime.parse(pair[1].trim()).atZone(zone).toEpochSecond();
+                windows.add(start);
+                windows.add(end);
+            } catch (DateTimeException e) {
+                logger.severe("Invalid exclusion window (expected yyyy-MM-ddTHH:mm/yyyy-MM-ddTHH:mm): " + exclusion);
+            }
+        }
+
+        return new RestartSchedule(List.copyOf(expressions), zone, windows.stream().mapToLong(Long::longValue).toArray());
+    }
+
+    @NotNull
+    public ZoneId getZone() {
+        return zone;
+    }
+
+    public boolean isEmpty() {
+        return expressions.isEmpty();
+    }
+
+    @Nullable
+    public ZonedDateTime next(@NotNull Instant now) {
+        if (expressions.isEmpty()) {
+            return null;
+        }
+
+        long epochSecond = now.getEpochSecond();
+
+        Index current = index;
+        long next = current != null ? current.next(epochSecond) : -1L;
+
+        if (next == -1L) {
+            current = buildIndex(epochSecond);
+            index = current;
+            next = current.next(epochSecond);
+        }
+
+        return next != -1L ? Instant.ofEpochSecond(next).atZone(zone) : null;
+    }
+
+    @NotNull
+    private Index buildIndex(long fromEpochSecond) {
+        TreeSet<Long> fireTimes = new TreeSet<>();
+        LocalDate date = Instant.ofEpochSecond(fromEpochSecond).atZone(zone).toLocalDate();
+
+        for (int day = 0; day < MAX_SEARCH_DAYS && fireTimes.size() < MAX_INDEX_SIZE; day++, date = date.plusDays(1)) {
+            for (CronExpression expression : expressions) {
+                if (expression.matches(date)) {
+                    addFireTimes(fireTimes, expression, date, fromEpochSecond);
+                }
+            }
+        }
+
+        return new Index(fireTimes.stream().mapToLong(Long::longValue).toArray());
+    }
+
+    private void addFireTimes(@NotNull TreeSet<Long> fireTimes, @NotNull CronExpression expression,
+                              @NotNull LocalDate date, long fromEpochSecond) {
+        for (int hour = 0; hour < 24; hour++) {
+            if ((expression.getHours() & (1L << hour)) == 0) {
+                continue;
+            }
+
+            for (int minute = 0; minute < 60; minute++) {
+                if ((expression.getMinutes() & (1L << minute)) == 0) {
+                    continue;
+                }
+
+                // ofLocal moves a time inside a DST gap forward and picks the earlier
+                // offset inside an overlap, so each time fires exactly once.
+                LocalDateTime local = LocalDateTime.of(date, LocalTime.of(hour, minute));
+                long epochSecond = ZonedDateTime.ofLocal(local, zone, null).toEpochSecond();
+
+                if (fromEpochSecond < epochSecond && !isExcluded(epochSecond)) {
+                    fireTimes.add(epochSecond);
+                }
+            }
+        }
+    }
+
+    private boolean isExcluded(long epochSecond) {
+        for (int i = 0; i < exclusions.length; i += 2) {
+            if (exclusions[i] <= epochSecond && epochSecond < exclusions[i + 1]) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static final class Index {
+
+        private final long[] fireTimes;
+
+        private Index(@NotNull long[] fireTimes) {
+            this.fireTimes = fireTimes;
+        }
+
+        private long next(long epochSecond) {
+            int index = Arrays.binarySearch(fireTimes, epochSecond);
+            int insertion = index < 0 ? -index - 1 : index + 1;
+            return insertion < fireTimes.length ? fireTimes[insertion] : -1L;
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package net.okocraft.autorestart.scheduler;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.time.Clock;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+public class ExecutorTaskScheduler implements TaskScheduler {
+
+    private final ScheduledExecutorService executor;
+    private final Clock clock = Clock.systemDefaultZone();
+
+    public ExecutorTaskScheduler(@NotNull String threadName) {
+        executor = Executors.newSingleThreadScheduledExecutor(r -> new Thread(r, threadName));
+    }
+
+    @Override
+    public long nanoTime() {
+        return System.nanoTime();
+    }
+
+    @Override
+    @NotNull
+    public Clock getClock() {
+        return clock;
+    }
+
+    @Override
+    @NotNull
+    public ScheduledFuture<?> schedule(@NotNull Runnable task, long delay, @NotNull TimeUnit unit) {
+        return executor.schedule(task, delay, unit);
+    }
+
+    @Override
+    @NotNull
+    public ScheduledFuture<?> scheduleAtFixedRate(@NotNull Runnable task, long initialDelay, long period, @NotNull TimeUnit unit) {
+        return executor.scheduleAtFixedRate(task, initialDelay, period, unit);
+    }
+
+    @Override
+    public void execute(@NotNull Runnable task) {
+        executor.execute(task);
+    }
+
+    @Override
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    @Override
+    public boolean isShutdown() {
+        return executor.isShutdown();
+    }
+}
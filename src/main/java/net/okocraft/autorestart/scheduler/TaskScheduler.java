@@ -0,0 +1,31 @@
+package net.okocraft.autorestart.scheduler;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.time.Clock;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+public interface TaskScheduler extends Executor {
+
+    long nanoTime();
+
+    @NotNull
+    Clock getClock();
+
+    @NotNull
+    ScheduledFuture<?> schedule(@NotNull Runnable task, long delay, @NotNull TimeUnit unit);
+
+    @NotNull
+    ScheduledFuture<?> scheduleAtFixedRate(@NotNull Runnable task, long initialDelay, long period, @NotNull TimeUnit unit);
+
+    void shutdown();
+
+    boolean isShutdown();
+
+    @Override
+    default void execute(@NotNull Runnable task) {
+        schedule(task, 0L, TimeUnit.NANOSECONDS);
+    }
+}
@@ -0,0 +1,221 @@
+package net.okocraft.autorestart.storage;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+public class RestartHistory {
+
+    // restart time in epoch millis, then shutdown, startup, first tick and downtime in millis
+    private static final int RECORD_SIZE = Long.BYTES + 4 * Integer.BYTES;
+
+    private final Path markerFile;
+    private final Path historyFile;
+    private final Executor executor;
+    private final Logger logger;
+
+    public RestartHistory(@NotNull Path directory, @NotNull Executor executor, @NotNull Logger logger) {
+        this.markerFile = directory.resolve("restart.marker");
+        this.historyFile = directory.resolve("restart-history.dat");
+        this.executor = executor;
+        this.logger = logger;
+    }
+
+    public void writeMarker(@NotNull Instant time) {
+        // Written synchronously, the server is about to stop.
+        try {
+            Files.createDirectories(markerFile.getParent());
+            Files.writeString(markerFile, String.valueOf(time.toEpochMilli()), StandardCharsets.UTF_8,
+                    StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE,
+                    StandardOpenOption.SYNC);
+        } catch (IOException e) {
+            logger.log(Level.WARNING, "Could not write " + markerFile.getFileName(), e);
+        }
+    }
+
+    public void writeExitTime(long millis) {
+        // Called from a shutdown hook, the time from the restart command to the exit is only known there.
+        if (!Files.isRegularFile(markerFile)) {
+            return;
+        }
+
+        try {
+            Files.writeString(markerFile, System.lineSeparator() + millis, StandardCharsets.UTF_8,
+                    StandardOpenOption.APPEND, StandardOpenOption.SYNC);
+        } catch (IOException e) {
+            logger.log(Level.WARNING, "Could not write " + markerFile.getFileName(), e);
+        }
+    }
+
+    public void deleteMarker() {
+        try {
+            Files.deleteIfExists(markerFile);
+        } catch (IOException e) {
+            logger.log(Level.WARNING, "Could not delete " + markerFile.getFileName(), e);
+        }
+    }
+
+    @Nullable
+    public Marker consumeMarker() {
+        if (!Files.isRegularFile(markerFile)) {
+            return null;
+        }
+
+        try {
+            // Removed right away so that a crash during startup is not measured from this marker again.
+            List<String> lines = Files.readAllLines(markerFile, StandardCharsets.UTF_8);
+            Files.delete(markerFile);
+
+            Instant time = Instant.ofEpochMilli(Long.parseLong(lines.get(0).trim()));
+            long exitMillis = 1 < lines.size() ? Long.parseLong(lines.get(1).trim()) : -1L;
+            return new Marker(time, exitMillis);
+        } catch (IOException | RuntimeException e) {
+            logger.log(Level.WARNING, "Could not read " + markerFile.getFileName(), e);
+            return null;
+        }
+    }
+
+    public void append(@NotNull Entry entry) {
+        executor.execute(() -> write(entry));
+    }
+
+    @NotNull
+    public List<Entry> readRecent(int max) throws IOException {
+        if (!Files.isRegularFile(historyFile)) {
+            return List.of();
+        }
+
+        try (FileChannel channel = FileChannel.open(historyFile, StandardOpenOption.READ)) {
+            // A record cut short by a crash during append is ignored.
+            long records = channel.size() / RECORD_SIZE;
+            int count = (int) Math.min(records, max);
+
+            ByteBuffer buffer = ByteBuffer.allocate(count * RECORD_SIZE);
+            channel.position((records - count) * RECORD_SIZE);
+
+            while (buffer.hasRemaining() && channel.read(buffer) != -1) {
+                // keep reading until the requested records are in the buffer
+            }
+
+            buffer.flip();
+
+            List<Entry> entries = new ArrayList<>(count);
+            while (RECORD_SIZE <= buffer.remaining()) {
+                entries.add(new Entry(
+                        Instant.ofEpochMilli(buffer.getLong()),
+                        buffer.getInt(), buffer.getInt(), buffer.getInt(), buffer.getInt()
+                ));
+            }
+
+            return entries;
+        }
+    }
+
+    private synchronized void write(@NotNull Entry entry) {
+        ByteBuffer buffer = ByteBuffer.allocate(RECORD_SIZE);
+        buffer.putLong(entry.getRestartTime().toEpochMilli());
+        buffer.putInt(toInt(entry.getShutdownMillis()));
+        buffer.putInt(toInt(entry.getStartupMillis()));
+        buffer.putInt(toInt(entry.getFirstTickMillis()));
+        buffer.putInt(toInt(entry.getDowntimeMillis()));
+        buffer.flip();
+
+        try {
+            Files.createDirectories(historyFile.getParent());
+
+            try (FileChannel channel = FileChannel.open(historyFile,
+                    StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND)) {
+                // Drop a partial record left by a crash so that the file stays aligned.
+                long aligned = channel.size() / RECORD_SIZE * RECORD_SIZE;
+                if (aligned != channel.size()) {
+                    channel.truncate(aligned);
+                }
+
+                while (buffer.hasRemaining()) {
+                    channel.write(buffer);
+                }
+            }
+        } catch (IOException e) {
+            logger.log(Level.WARNING, "Could not write " + historyFile.getFileName(), e);
+        }
+    }
+
+    private static int toInt(long millis) {
+        return (int) Math.max(0, Math.min(Integer.MAX_VALUE, millis));
+    }
+
+    public static final class Marker {
+
+        private final Instant restartTime;
+        private final long exitMillis;
+
+        public Marker(@NotNull Instant restartTime, long exitMillis) {
+            this.restartTime = restartTime;
+            this.exitMillis = exitMillis;
+        }
+
+        @NotNull
+        public Instant getRestartTime() {
+            return restartTime;
+        }
+
+        /**
+         * @return the millis from the restart command to the exit of the previous process, or -1 if unknown
+         */
+        public long getExitMillis() {
+            return exitMillis;
+        }
+    }
+
+    public static final class Entry {
+
+        private final Instant restartTime;
+        private final long shutdownMillis;
+        private final long startupMillis;
+        private final long firstTickMillis;
+        private final long downtimeMillis;
+
+        public Entry(@NotNull Instant restartTime, long shutdownMillis, long startupMillis,
+                     long firstTickMillis, long downtimeMillis) {
+            this.restartTime = restartTime;
+            this.shutdownMillis = shutdownMillis;
+            this.startupMillis = startupMillis;
+            this.firstTickMillis = firstTickMillis;
+            this.downtimeMillis = downtimeMillis;
+        }
+
+        @NotNull
+        public Instant getRestartTime() {
+            return restartTime;
+        }
+
+        public long getShutdownMillis() {
+            return shutdownMillis;
+        }
+
+        public long getStartupMillis() {
+            return startupMillis;
+        }
+
+        public long getFirstTickMillis() {
+            return firstTickMillis;
+        }
+
+        public long getDowntimeMillis() {
+            return downtimeMillis;
+        }
+    }
+}
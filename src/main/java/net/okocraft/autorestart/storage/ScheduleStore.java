@@ -0,0 +1,150 @@
+package net.okocraft.autorestart.storage;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.Properties;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.zip.CRC32;
+
+public class ScheduleStore {
+
+    private static final PendingRestart NONE = new PendingRestart(Instant.EPOCH, null);
+
+    private final Path file;
+    private final Path temporaryFile;
+    private final Executor executor;
+    private final Logger logger;
+    private final AtomicReference<PendingRestart> pending = new AtomicReference<>();
+
+    public ScheduleStore(@NotNull Path file, @NotNull Executor executor, @NotNull Logger logger) {
+        this.file = file;
+        this.temporaryFile = file.resolveSibling(file.getFileName() + ".tmp");
+        this.executor = executor;
+        this.logger = logger;
+    }
+
+    @Nullable
+    public PendingRestart load() {
+        if (!Files.isRegularFile(file)) {
+            return null;
+        }
+
+        try {
+            Properties properties = new Properties();
+            properties.load(new StringReader(Files.readString(file, StandardCharsets.UTF_8)));
+
+            long time = Long.parseLong(properties.getProperty("time", ""));
+            String reason = properties.getProperty("reason");
+            long checksum = Long.parseLong(properties.getProperty("checksum", ""));
+
+            if (checksum != checksum(time, reason)) {
+                logger.warning("Ignoring " + file.getFileName() + ": checksum mismatch.");
+                return null;
+            }
+
+            return new PendingRestart(Instant.ofEpochMilli(time), reason);
+        } catch (IOException | NumberFormatException e) {
+            logger.log(Level.WARNING, "Could not read " + file.getFileName(), e);
+            return null;
+        }
+    }
+
+    public void save(@NotNull Instant time, @Nullable String reason) {
+        submit(new PendingRestart(time, reason));
+    }
+
+    public void clear() {
+        submit(NONE);
+    }
+
+    public synchronized void flush() {
+        PendingRestart restart = pending.getAndSet(null);
+
+        if (restart == null) {
+            return;
+        }
+
+        try {
+            if (restart == NONE) {
+                Files.deleteIfExists(file);
+            } else {
+                write(restart);
+            }
+        } catch (IOException e) {
+            logger.log(Level.WARNING, "Could not write " + file.getFileName(), e);
+        }
+    }
+
+    private void submit(@NotNull PendingRestart restart) {
+        // Only the latest state matters, so a write that is already queued picks up this one.
+        if (pending.getAndSet(restart) == null) {
+            executor.execute(this::flush);
+        }
+    }
+
+    private void write(@NotNull PendingRestart restart) throws IOException {
+        long time = restart.getTime().toEpochMilli();
+
+        Properties properties = new Properties();
+        properties.setProperty("time", String.valueOf(time));
+        if (restart.getReason() != null) {
+            properties.setProperty("reason", restart.getReason());
+        }
+        properties.setProperty("checksum", String.valueOf(checksum(time, restart.getReason())));
+
+        StringWriter writer = new StringWriter();
+        properties.store(writer, "AutoRestart pending restart");
+
+        Files.createDirectories(file.getParent());
+        Files.writeString(temporaryFile, writer.toString(), StandardCharsets.UTF_8,
+                StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE,
+                StandardOpenOption.SYNC);
+
+        try {
+            Files.move(temporaryFile, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(temporaryFile, file, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    private static long checksum(long time, @Nullable String reason) {
+        CRC32 crc = new CRC32();
+        crc.update((time + "\n" + (reason != null ? reason : "")).getBytes(StandardCharsets.UTF_8));
+        return crc.getValue();
+    }
+
+    public static final class PendingRestart {
+
+        private final Instant time;
+        private final String reason;
+
+        private PendingRestart(@NotNull Instant time, @Nullable String reason) {
+            this.time = time;
+            this.reason = reason;
+        }
+
+        @NotNull
+        public Instant getTime() {
+            return time;
+        }
+
+        @Nullable
+        public String getReason() {
+            return reason;
+        }
+    }
+}
@@ -0,0 +1,117 @@
+package net.okocraft.autorestart.tasks;
+
+import net.okocraft.autorestart.AutoRestartPlugin;
+import net.okocraft.autorestart.lifecycle.RestartState;
+import org.bukkit.scheduler.BukkitRunnable;
+import org.bukkit.scheduler.BukkitWorker;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+public class CommandPipeline extends BukkitRunnable {
+
+    private final AutoRestartPlugin plugin;
+    private final List<CommandStep> steps;
+    private final long deadline;
+    private final Runnable onComplete;
+
+    private int index;
+    private long ticks;
+    private boolean dispatched;
+    private long stepStartTime;
+
+    public CommandPipeline(@NotNull AutoRestartPlugin plugin, @NotNull List<CommandStep> steps,
+                           long timeoutSeconds, @NotNull Runnable onComplete) {
+        this.plugin = plugin;
+        this.steps = steps;
+        this.deadline = plugin.getTaskScheduler().nanoTime() + TimeUnit.SECONDS.toNanos(timeoutSeconds);
+        this.onComplete = onComplete;
+    }
+
+    public void start() {
+        if (steps.isEmpty()) {
+            onComplete.run();
+        } else {
+            runTaskTimer(plugin, 0L, 1L);
+        }
+    }
+
+    @Override
+    public void run() {
+        if (plugin.getLifecycle().getState() != RestartState.PRE_COMMANDS) {
+            plugin.getLogger().info("Restart was cancelled, " + (steps.size() - index) + " step(s) skipped.");
+            cancel();
+            return;
+        }
+
+        if (index < steps.size() && deadline - plugin.getTaskScheduler().nanoTime() < 0) {
+            plugin.getLogger().warning("Commands before restart did not finish in time, "
+                    + (steps.size() - index) + " step(s) skipped.");
+            index = steps.size();
+        }
+
+        if (steps.size() <= index) {
+            cancel();
+            onComplete.run();
+            return;
+        }
+
+        CommandStep step = steps.get(index);
+
+        if (!dispatched) {
+            if (ticks++ < step.getDelayTicks()) {
+                return;
+            }
+
+            stepStartTime = plugin.getTaskScheduler().nanoTime();
+            dispatch(step.getCommand());
+            dispatched = true;
+            ticks = 0;
+
+            if (step.getWaitFor() == null) {
+                next(step, false);
+            }
+
+            return;
+        }
+
+        ticks++;
+
+        if (isFinished(step.getWaitFor())) {
+            next(step, false);
+        } else if (step.getTimeoutTicks() <= ticks) {
+            next(step, true);
+        }
+    }
+
+    private void next(@NotNull CommandStep step, boolean timedOut) {
+        long elapsed = TimeUnit.NANOSECONDS.toMillis(plugin.getTaskScheduler().nanoTime() - stepStartTime);
+
+        if (timedOut) {
+            plugin.getLogger().warning("Timed out waiting for '" + step.getCommand() + "' after " + elapsed + "ms.");
+        } else {
+            plugin.getLogger().info("Executed '" + step.getCommand() + "' in " + elapsed + "ms.");
+        }
+
+        index++;
+        ticks = 0;
+        dispatched = false;
+    }
+
+    private boolean isFinished(@NotNull String pluginName) {
+        for (BukkitWorker worker : plugin.getServer().getScheduler().getActiveWorkers()) {
+            if (worker.getOwner().getName().equalsIgnoreCase(pluginName)) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    private void dispatch(@NotNull String command) {
+        if (!plugin.getServer().dispatchCommand(plugin.getServer().getConsoleSender(), command)) {
+            plugin.getLogger().warning("Execution failed: " + command);
+        }
+    }
+}
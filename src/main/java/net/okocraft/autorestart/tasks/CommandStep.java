@@ -0,0 +1,104 @@
+package net.okocraft.autorestart.tasks;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Locale;
+
+public final class CommandStep {
+
+    private static final long DEFAULT_TIMEOUT_TICKS = 600L;
+
+    private final String command;
+    private final long delayTicks;
+    private final String waitFor;
+    private final long timeoutTicks;
+
+    private CommandStep(@NotNull String command, long delayTicks, @Nullable String waitFor, long timeoutTicks) {
+        this.command = command;
+        this.delayTicks = delayTicks;
+        this.waitFor = waitFor;
+        this.timeoutTicks = timeoutTicks;
+    }
+
+    /**
+     * Parses a step such as {@code "[delay=40, wait=CoreProtect, timeout=600] co purge t:30d"}.
+     * <p>
+     * {@code delay} and {@code timeout} are in ticks, {@code wait} is the name of a plugin
+     * whose async workers must finish before the next step starts.
+     */
+    @NotNull
+    public static CommandStep parse(@NotNull String line) throws IllegalArgumentException {
+        String trimmed = line.trim();
+
+        if (!trimmed.startsWith("[")) {
+            return new CommandStep(trimmed, 0L, null, DEFAULT_TIMEOUT_TICKS);
+        }
+
+        int end = trimmed.indexOf(']');
+        if (end == -1) {
+            throw new IllegalArgumentException("Missing ']' in: " + line);
+        }
+
+        long delay = 0L;
+        String waitFor = null;
+        long timeout = DEFAULT_TIMEOUT_TICKS;
+
+        for (String option : trimmed.substring(1, end).split(",")) {
+            if (option.isBlank()) {
+                continue;
+            }
+
+            String[] pair = option.split("=", 2);
+            if (pair.length != 2) {
+                throw new IllegalArgumentException("Invalid option '" + option.trim() + "' in: " + line);
+            }
+
+            String key = pair[0].trim().toLowerCase(Locale.ROOT);
+            String value = pair[1].trim();
+
+            try {
+                switch (key) {
+                    case "delay":
+                        delay = Math.max(0L, Long.parseLong(value));
+                        break;
+                    case "wait":
+                        waitFor = value.isEmpty() ? null : value;
+                        break;
+                    case "timeout":
+                        timeout = Math.max(1L, Long.parseLong(value));
+                        break;
+                    default:
+                        throw new IllegalArgumentException("Unknown option '" + key + "' in: " + line);
+                }
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Invalid number '" + value + "' in: " + line);
+            }
+        }
+
+        String command = trimmed.substring(end + 1).trim();
+        if (command.isEmpty()) {
+            throw new IllegalArgumentException("Missing command in: " + line);
+        }
+
+        return new CommandStep(command, delay, waitFor, timeout);
+    }
+
+    @NotNull
+    public String getCommand() {
+        return command;
+    }
+
+    public long getDelayTicks() {
+        return delayTicks;
+    }
+
+    @Nullable
+    public String getWaitFor() {
+        return waitFor;
+    }
+
+    public long getTimeoutTicks() {
+        return timeoutTicks;
+    }
+}
@@ -0,0 +1,106 @@
+package net.okocraft.autorestart.tasks;
+
+import net.okocraft.autorestart.config.MessageConfig;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+public final class CountdownFrames {
+
+    private static final int MAX_PRE_RENDERED_SECONDS = 3600;
+
+    private final MessageConfig messageConfig;
+    private final String reason;
+    private final Map<String, Frames> locales;
+
+    private CountdownFrames(@NotNull MessageConfig messageConfig, @Nullable String reason,
+                            @NotNull Map<String, Frames> locales) {
+        this.messageConfig = messageConfig;
+        this.reason = reason;
+        this.locales = locales;
+    }
+
+    @NotNull
+    public static CountdownFrames render(@NotNull MessageConfig messageConfig, @Nullable String reason,
+                                         long noticeTime, @NotNull List<Long> secondsToBroadcast) {
+        int size = (int) Math.max(0, Math.min(noticeTime, MAX_PRE_RENDERED_SECONDS));
+        Map<String, Frames> locales = new HashMap<>();
+
+        // Rendered once per language, so the per-second cost does not grow with the number of players.
+        for (String locale : messageConfig.getLocales()) {
+            Frames frames = new Frames(size, messageConfig.getFormattedReason(locale, reason));
+
+            for (int i = 1; i <= size; i++) {
+                frames.barTitles[i] = messageConfig.getCountdownBarTitle(locale, i, frames.reason);
+            }
+
+            for (long second : secondsToBroadcast) {
+                if (0 < second && second <= size) {
+                    frames.messages[(int) second] = messageConfig.getCountdownMessage(locale, second, frames.reason);
+                }
+            }
+
+            locales.put(locale, frames);
+        }
+
+        return new CountdownFrames(messageConfig, reason, locales);
+    }
+
+    @NotNull
+    public String getBarTitle(@NotNull String locale, long remaining) {
+        Frames frames = locales.get(locale);
+
+        if (frames != null && 0 < remaining && remaining < frames.barTitles.length) {
+            return frames.barTitles[(int) remaining];
+        } else {
+            return messageConfig.getCountdownBarTitle(locale, remaining, getReason(locale));
+        }
+    }
+
+    @NotNull
+    public String getCountdownMessage(@NotNull String locale, long remaining) {
+        Frames frames = locales.get(locale);
+        String message = frames != null && 0 < remaining && remaining < frames.messages.length
+                ? frames.messages[(int) remaining] : null;
+
+        // Seconds outside the broadcast list are only announced after a stall, so render them on demand.
+        return message != null ? message : messageConfig.getCountdownMessage(locale, remaining, getReason(locale));
+    }
+
+    @NotNull
+    public String getActionBar(@NotNull String locale, long remaining) {
+        return messageConfig.getCountdownActionBar(locale, remaining, getReason(locale));
+    }
+
+    @NotNull
+    public String getTitle(@NotNull String locale, long remaining) {
+        return messageConfig.getCountdownTitle(locale, remaining, getReason(locale));
+    }
+
+    @NotNull
+    public String getSubtitle(@NotNull String locale, long remaining) {
+        return messageConfig.getCountdownSubtitle(locale, remaining, getReason(locale));
+    }
+
+    @NotNull
+    private String getReason(@NotNull String locale) {
+        Frames frames = locales.get(locale);
+        return frames != null ? frames.reason : messageConfig.getFormattedReason(locale, reason);
+    }
+
+    private static final class Frames {
+
+        private final String[] barTitles;
+        private final String[] messages;
+        private final String reason;
+
+        private Frames(int size, @NotNull String reason) {
+            this.barTitles = new String[size + 1];
+            this.messages = new String[size + 1];
+            this.reason = reason;
+        }
+    }
+}
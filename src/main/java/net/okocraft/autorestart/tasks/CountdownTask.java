@@ -1,48 +1,213 @@
 package net.okocraft.autorestart.tasks;
 
 import net.okocraft.autorestart.AutoRestartPlugin;
+import net.okocraft.autorestart.config.GeneralSettings;
+import net.okocraft.autorestart.lifecycle.RestartState;
 import org.jetbrains.annotations.NotNull;
 
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
 public class CountdownTask implements Runnable {
 
+    private static final long TICK = TimeUnit.SECONDS.toNanos(1);
+
     private final AutoRestartPlugin plugin;
-    private long time;
+    private final Timeline timeline;
+    private final long deadline;
 
-    public CountdownTask(@NotNull AutoRestartPlugin plugin, long time) {
+    private volatile CountdownFrames frames;
+    private volatile TaskRegistry.Handle handle;
+    private volatile boolean finished;
+    private volatile boolean cancelled;
+    private volatile long noticeTime;
+    private long lastRemaining = -1;
+    private boolean announced;
+    // Set on the main thread, read by cancel() on whichever thread cancels the countdown.
+    private volatile WorldSaveTask worldSave;
+
+    public CountdownTask(@NotNull AutoRestartPlugin plugin, @NotNull CountdownFrames frames,
+                         @NotNull Timeline timeline, long deadline) {
         this.plugin = plugin;
-        this.time = time;
+        this.frames = frames;
+        this.timeline = timeline;
+        this.deadline = deadline;
+    }
+
+    public void start(long noticeTime) {
+        this.noticeTime = noticeTime;
+
+        // Ticks start early enough for the first timeline action, the display waits for the notice time.
+        long lead = Math.max(noticeTime, timeline.getFirstOffset());
+        long startTime = deadline - TimeUnit.SECONDS.toNanos(lead);
+        long delay = Math.max(0, startTime - plugin.getTaskScheduler().nanoTime());
+
+        handle = plugin.scheduleTaskAtFixedRate(this, delay, TICK);
+
+        if (finished) {
+            handle.cancel();
+        }
+    }
+
+    public void cancel() {
+        cancelled = true;
+        finish();
+        stopWorldSave(true);
+    }
+
+    public long getRemainingSeconds() {
+        return toSeconds(deadline - plugin.getTaskScheduler().nanoTime());
+    }
+
+    public long getDeadline() {
+        return deadline;
+    }
+
+    public long getNoticeTime() {
+        return noticeTime;
+    }
+
+    public void setFrames(@NotNull CountdownFrames frames) {
+        this.frames = frames;
     }
 
     @Override
     public void run() {
-        if (plugin.getGeneralConfig().isBossBarEnabled()) {
-            plugin.getTimer().start(time);
+        if (finished) {
+            return;
+        }
+
+        long untilDeadline = deadline - plugin.getTaskScheduler().nanoTime();
+        long remaining = toSeconds(untilDeadline);
+
+        if (remaining == lastRemaining) {
+            return;
+        }
+
+        plugin.getMetrics().getTickJitter().record(Math.abs(untilDeadline - remaining * TICK));
+
+        runTimeline(remaining);
+
+        if (remaining < 1) {
+            finish();
+            plugin.getServer().getScheduler().runTask(plugin, () -> {
+                // A cancel or a reload may have replaced this countdown before the main thread got here.
+                if (cancelled) {
+                    return;
+                }
+
+                // The restart command saves whatever is still dirty, so autosave is left off.
+                // The saved flags are kept so that cancel() can still restore them
+                // if the restart is cancelled during the commands-before or kick phase.
+                if (worldSave != null) {
+                    worldSave.stop(false);
+                }
+
+                new RestartTask(plugin).run();
+            });
+            return;
+        }
+
+        lastRemaining = remaining;
+
+        if (noticeTime < remaining) {
+            return;
         }
 
-        checkBroadcastTime();
-        plugin.scheduleTask(this::count, 1);
+        boolean first = !announced;
+        announced = true;
+
+        plugin.getServer().getScheduler().runTask(plugin, () -> apply(remaining, first));
     }
 
-    private void count() {
-        time--;
+    private void runTimeline(long remaining) {
+        if (timeline.isDone()) {
+            return;
+        }
+
+        List<TimelineAction> due = timeline.poll(remaining);
+
+        if (due.isEmpty()) {
+            return;
+        }
+
+        plugin.getServer().getScheduler().runTask(plugin, () -> {
+            if (!isActive() && 0 < remaining) {
+                return;
+            }
 
-        if (0 < time) {
-            checkBroadcastTime();
+            for (TimelineAction action : due) {
+                plugin.getLogger().info("Running T-" + action.getOffset() + ": " + action.getCommand());
 
-            if (plugin.getTimer().isRunning()) {
-                plugin.getTimer().update();
+                if (!plugin.getServer().dispatchCommand(plugin.getServer().getConsoleSender(), action.getCommand())) {
+                    plugin.getLogger().warning("Execution failed: " + action.getCommand());
+                }
             }
+        });
+    }
 
-            plugin.scheduleTask(this::count, 1);
+    private void apply(long remaining, boolean first) {
+        if (!isActive()) {
+            return;
+        }
+
+        long start = System.nanoTime();
+
+        if (first) {
+            plugin.getLifecycle().transition(RestartState.SCHEDULED, RestartState.COUNTDOWN);
+            plugin.getDisplay().start(frames, remaining);
         } else {
-            plugin.getServer().getScheduler().runTask(plugin, new RestartTask(plugin));
+            plugin.getDisplay().update(remaining);
+        }
+
+        updateWorldSave(remaining);
+
+        plugin.getMetrics().getDispatch().record(System.nanoTime() - start);
+    }
+
+    private void updateWorldSave(long remaining) {
+        GeneralSettings settings = plugin.getGeneralConfig().getSettings();
+
+        if (!settings.isWorldSaveEnabled()) {
+            return;
+        }
+
+        if (worldSave == null && remaining <= settings.getWorldSaveStart()) {
+            worldSave = new WorldSaveTask(plugin);
+            worldSave.start();
+        }
+
+        if (worldSave != null && !worldSave.isUnloading() && remaining <= settings.getWorldSaveUnloadStart()) {
+            worldSave.startUnloading();
         }
     }
 
-    private void checkBroadcastTime() {
-        if (plugin.getGeneralConfig().getSecondsToBroadcast().contains(time)) {
-            String message = plugin.getMessageConfig().getCountdownMessage(time, plugin.getFormattedRestartReason());
-            plugin.getServer().broadcastMessage(message);
+    private void stopWorldSave(boolean restoreAutoSave) {
+        WorldSaveTask current = worldSave;
+
+        if (current != null) {
+            worldSave = null;
+            current.stop(restoreAutoSave);
         }
     }
+
+    private boolean isActive() {
+        TaskRegistry.Handle current = handle;
+        return !finished && (current == null || current.isActive());
+    }
+
+    private void finish() {
+        finished = true;
+
+        TaskRegistry.Handle current = handle;
+        if (current != null) {
+            current.cancel();
+        }
+    }
+
+    private static long toSeconds(long nanos) {
+        // Rounded instead of truncated so that a tick fired slightly early or late
+        // still lands on the second it was scheduled for.
+        return Math.floorDiv(nanos + TICK / 2, TICK);
+    }
 }
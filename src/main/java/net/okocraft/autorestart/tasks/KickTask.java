@@ -0,0 +1,91 @@
+package net.okocraft.autorestart.tasks;
+
+import net.okocraft.autorestart.AutoRestartPlugin;
+import net.okocraft.autorestart.config.MessageConfig;
+import net.okocraft.autorestart.lifecycle.RestartState;
+import org.bukkit.entity.Player;
+import org.bukkit.scheduler.BukkitRunnable;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+public class KickTask extends BukkitRunnable {
+
+    private final AutoRestartPlugin plugin;
+    private final String reason;
+    private final Map<String, String> messages = new HashMap<>();
+    private final int playersPerTick;
+    private final long nanosPerTick;
+    private final long timeoutNanos;
+    private final Runnable onComplete;
+    private final Deque<Player> queue = new ArrayDeque<>();
+
+    private long deadline;
+
+    public KickTask(@NotNull AutoRestartPlugin plugin, @Nullable String reason, @NotNull Runnable onComplete) {
+        this.plugin = plugin;
+        this.reason = reason;
+        this.playersPerTick = plugin.getGeneralConfig().getSettings().getKickPlayersPerTick();
+        this.nanosPerTick = TimeUnit.MILLISECONDS.toNanos(plugin.getGeneralConfig().getSettings().getKickMillisPerTick());
+        this.timeoutNanos = TimeUnit.SECONDS.toNanos(plugin.getGeneralConfig().getSettings().getKickTimeout());
+        this.onComplete = onComplete;
+    }
+
+    public void start() {
+        deadline = plugin.getTaskScheduler().nanoTime() + timeoutNanos;
+        runTaskTimer(plugin, 0L, 1L);
+    }
+
+    @Override
+    public void run() {
+        if (plugin.getLifecycle().getState() != RestartState.KICKING) {
+            cancel();
+            return;
+        }
+
+        if (queue.isEmpty()) {
+            // Players kicked on an earlier tick have been saved and removed by now,
+            // so an empty server here means the restart command can run.
+            if (plugin.getServer().getOnlinePlayers().isEmpty()) {
+                cancel();
+                onComplete.run();
+                return;
+            }
+
+            queue.addAll(plugin.getServer().getOnlinePlayers());
+        }
+
+        // Kicks cancelled by other plugins or players rejoining would otherwise hold the restart forever.
+        if (deadline - plugin.getTaskScheduler().nanoTime() <= 0) {
+            plugin.getLogger().warning(plugin.getServer().getOnlinePlayers().size()
+                    + " players are still online after the kick timeout, restarting anyway.");
+            cancel();
+            onComplete.run();
+            return;
+        }
+
+        long start = System.nanoTime();
+        int kicked = 0;
+
+        while (!queue.isEmpty() && kicked < playersPerTick && System.nanoTime() - start < nanosPerTick) {
+            Player player = queue.poll();
+
+            if (player.isOnline()) {
+                player.kickPlayer(getMessage(player));
+                kicked++;
+            }
+        }
+    }
+
+    @NotNull
+    private String getMessage(@NotNull Player player) {
+        MessageConfig messageConfig = plugin.getMessageConfig();
+        return messages.computeIfAbsent(messageConfig.resolveLocale(player.getLocale()),
+                locale -> messageConfig.getKickMessage(locale, messageConfig.getFormattedReason(locale, reason)));
+    }
+}
@@ -0,0 +1,89 @@
+package net.okocraft.autorestart.tasks;
+
+import net.okocraft.autorestart.AutoRestartPlugin;
+import net.okocraft.autorestart.config.GeneralSettings;
+import net.okocraft.autorestart.lifecycle.RestartState;
+import net.okocraft.autorestart.monitor.PlayerCountTracker;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.function.IntConsumer;
+import java.util.function.LongConsumer;
+
+public class PlayerAwareRestart {
+
+    private final AutoRestartPlugin plugin;
+    private final PlayerCountTracker tracker;
+    private final long noticeTime;
+    private final int maxPlayers;
+    private final LongConsumer onFire;
+    private final IntConsumer listener = this::onPlayerCountChanged;
+
+    private boolean windowOpen;
+    private boolean finished;
+
+    public PlayerAwareRestart(@NotNull AutoRestartPlugin plugin, @NotNull PlayerCountTracker tracker,
+                              long noticeTime, @NotNull LongConsumer onFire) {
+        this.plugin = plugin;
+        this.tracker = tracker;
+        this.noticeTime = noticeTime;
+        this.maxPlayers = plugin.getGeneralConfig().getSettings().getPlayerAwareMaxPlayers();
+        this.onFire = onFire;
+    }
+
+    public void start(long secondsUntilRestart) {
+        GeneralSettings settings = plugin.getGeneralConfig().getSettings();
+
+        long windowDelay = Math.max(0, secondsUntilRestart - Math.max(noticeTime, settings.getPlayerAwareEarlyWindow()));
+        long dueDelay = Math.max(0, secondsUntilRestart - noticeTime);
+        long deadlineDelay = dueDelay + settings.getPlayerAwareMaxDelay();
+
+        tracker.addListener(listener);
+
+        plugin.scheduleTask(() -> runOnMainThread(this::openWindow), windowDelay);
+        plugin.scheduleTask(() -> runOnMainThread(this::onDue), dueDelay);
+
+        if (dueDelay < deadlineDelay) {
+            plugin.scheduleTask(() -> runOnMainThread(this::fire), deadlineDelay);
+        }
+    }
+
+    public void cancel() {
+        finished = true;
+        tracker.removeListener(listener);
+    }
+
+    private void openWindow() {
+        windowOpen = true;
+        onPlayerCountChanged(tracker.getCount());
+    }
+
+    private void onDue() {
+        windowOpen = true;
+
+        if (tracker.getCount() <= maxPlayers || plugin.getGeneralConfig().getSettings().getPlayerAwareMaxDelay() < 1) {
+            fire();
+        } else if (!finished) {
+            plugin.getLifecycle().transition(RestartState.SCHEDULED, RestartState.HELD);
+            plugin.getLogger().info("Holding the restart while " + tracker.getCount() + " players are online.");
+        }
+    }
+
+    private void onPlayerCountChanged(int count) {
+        if (windowOpen && count <= maxPlayers) {
+            fire();
+        }
+    }
+
+    private void fire() {
+        if (finished) {
+            return;
+        }
+
+        cancel();
+        onFire.accept(noticeTime);
+    }
+
+    private void runOnMainThread(@NotNull Runnable task) {
+        plugin.getServer().getScheduler().runTask(plugin, task);
+    }
+}
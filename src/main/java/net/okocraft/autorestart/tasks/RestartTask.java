@@ -1,9 +1,12 @@
 package net.okocraft.autorestart.tasks;
 
 import net.okocraft.autorestart.AutoRestartPlugin;
-import org.bukkit.entity.Player;
+import net.okocraft.autorestart.config.GeneralSettings;
+import net.okocraft.autorestart.lifecycle.RestartState;
 import org.jetbrains.annotations.NotNull;
 
+import java.time.Instant;
+
 public class RestartTask implements Runnable {
 
     private final AutoRestartPlugin plugin;
@@ -14,28 +17,70 @@ public class RestartTask implements Runnable {
 
     @Override
     public void run() {
-        plugin.getGeneralConfig().getCommandsBeforeRestart().forEach(this::executeRestartCommand);
+        plugin.getLifecycle().begin(RestartState.PRE_COMMANDS);
+        plugin.getScheduleStore().clear();
+
+        GeneralSettings settings = plugin.getGeneralConfig().getSettings();
+        long start = plugin.getTaskScheduler().nanoTime();
 
-        if (plugin.getGeneralConfig().isKickBefore()) {
+        new CommandPipeline(plugin, settings.getStepsBeforeRestart(), settings.getCommandsBeforeTimeout(), () -> {
+            plugin.getMetrics().getCommandsBefore().record(plugin.getTaskScheduler().nanoTime() - start);
             kickPlayers();
+        }).start();
+    }
+
+    private void kickPlayers() {
+        if (plugin.getGeneralConfig().isKickBefore() && !plugin.getServer().getOnlinePlayers().isEmpty()) {
+            if (!advance(RestartState.PRE_COMMANDS, RestartState.KICKING)) {
+                return;
+            }
+
+            long start = plugin.getTaskScheduler().nanoTime();
+
+            new KickTask(plugin, plugin.getRestartReason(), () -> {
+                plugin.getMetrics().getKick().record(plugin.getTaskScheduler().nanoTime() - start);
+                restart(RestartState.KICKING);
+            }).start();
+        } else {
+            restart(RestartState.PRE_COMMANDS);
+        }
+    }
+
+    private void restart(@NotNull RestartState from) {
+        if (!advance(from, RestartState.RESTARTING)) {
+            return;
         }
 
-        if (plugin.getTimer().isRunning()) {
-            plugin.getTimer().stop();
+        if (plugin.getDisplay().isRunning()) {
+            plugin.getDisplay().stop();
         }
 
+        plugin.getMetrics().markRestartDispatched();
+        plugin.getRestartHistory().writeMarker(Instant.now());
+
         executeRestartCommand(plugin.getGeneralConfig().getRestartCommand());
     }
 
-    private void executeRestartCommand(@NotNull String command) {
-        if (!plugin.getServer().dispatchCommand(plugin.getServer().getConsoleSender(), command)) {
-            plugin.getLogger().warning("Execution failed: " + command);
+    private boolean advance(@NotNull RestartState expected, @NotNull RestartState next) {
+        // Fails when the restart was cancelled or replaced while the previous phase was running.
+        if (plugin.getLifecycle().transition(expected, next)) {
+            return true;
+        } else {
+            plugin.getLogger().info("Restart was cancelled during " + expected + ".");
+            return false;
         }
     }
 
-    private void kickPlayers() {
-        for (Player player : plugin.getServer().getOnlinePlayers()) {
-            player.kickPlayer(plugin.getMessageConfig().getKickMessage(plugin.getFormattedRestartReason()));
+    private void executeRestartCommand(@NotNull String command) {
+        if (plugin.getServer().dispatchCommand(plugin.getServer().getConsoleSender(), command)) {
+            return;
         }
+
+        plugin.getLogger().warning("Execution failed: " + command);
+
+        // Nothing is going to stop the server, so the restart is dropped as if it had been cancelled.
+        plugin.getRestartHistory().deleteMarker();
+        plugin.getMetrics().clearRestartDispatched();
+        plugin.cancelRestarting();
     }
 }
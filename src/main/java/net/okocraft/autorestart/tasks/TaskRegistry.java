@@ -0,0 +1,138 @@
+package net.okocraft.autorestart.tasks;
+
+import net.okocraft.autorestart.scheduler.TaskScheduler;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+public class TaskRegistry {
+
+    private final TaskScheduler scheduler;
+    private final Map<Long, Handle> handles = new ConcurrentHashMap<>();
+    private final AtomicLong nextId = new AtomicLong();
+
+    public TaskRegistry(@NotNull TaskScheduler scheduler) {
+        this.scheduler = scheduler;
+    }
+
+    @NotNull
+    public Handle schedule(@NotNull Runnable task, long delay, @NotNull TimeUnit unit) {
+        Handle handle = register();
+
+        Runnable wrapped = () -> {
+            if (handle.cancelled) {
+                return;
+            }
+
+            try {
+                task.run();
+            } finally {
+                handles.remove(handle.id, handle);
+            }
+        };
+
+        return handle.attach(scheduler.schedule(wrapped, delay, unit));
+    }
+
+    @NotNull
+    public Handle scheduleAtFixedRate(@NotNull Runnable task, long initialDelay, long period, @NotNull TimeUnit unit) {
+        Handle handle = register();
+
+        Runnable wrapped = () -> {
+            if (handle.cancelled) {
+                return;
+            }
+
+            try {
+                task.run();
+            } catch (RuntimeException | Error e) {
+                // The executor suppresses later runs after an exception, so drop the handle too.
+                handle.cancel();
+                throw e;
+            }
+        };
+
+        return handle.attach(scheduler.scheduleAtFixedRate(wrapped, initialDelay, period, unit));
+    }
+
+    public int cancelAll() {
+        int cancelled = 0;
+
+        for (Handle handle : handles.values()) {
+            if (handle.cancel()) {
+                cancelled++;
+            }
+        }
+
+        return cancelled;
+    }
+
+    public int size() {
+        return handles.size();
+    }
+
+    public boolean isEmpty() {
+        return handles.isEmpty();
+    }
+
+    @NotNull
+    private Handle register() {
+        Handle handle = new Handle(nextId.incrementAndGet());
+        handles.put(handle.id, handle);
+        return handle;
+    }
+
+    public final class Handle {
+
+        private final long id;
+        private volatile ScheduledFuture<?> future;
+        private volatile boolean cancelled;
+
+        private Handle(long id) {
+            this.id = id;
+        }
+
+        public long getId() {
+            return id;
+        }
+
+        public boolean isActive() {
+            return handles.get(id) == this;
+        }
+
+        public long getDelay(@NotNull TimeUnit unit) {
+            ScheduledFuture<?> current = future;
+            return current != null ? current.getDelay(unit) : 0L;
+        }
+
+        public boolean cancel() {
+            cancelled = true;
+
+            if (!handles.remove(id, this)) {
+                return false;
+            }
+
+            ScheduledFuture<?> current = future;
+            if (current != null) {
+                current.cancel(false);
+            }
+
+            return true;
+        }
+
+        @NotNull
+        private Handle attach(@NotNull ScheduledFuture<?> future) {
+            this.future = future;
+
+            if (cancelled) {
+                future.cancel(false);
+            }
+
+            return this;
+        }
+    }
+}
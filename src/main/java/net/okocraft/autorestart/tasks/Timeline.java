@@ -0,0 +1,55 @@
+package net.okocraft.autorestart.tasks;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+public final class Timeline {
+
+    private static final Timeline EMPTY = new Timeline(new TimelineAction[0]);
+
+    private final TimelineAction[] actions;
+    private int next;
+
+    private Timeline(@NotNull TimelineAction[] actions) {
+        this.actions = actions;
+    }
+
+    @NotNull
+    public static Timeline compile(@NotNull List<TimelineAction> actions, long seconds) {
+        if (actions.isEmpty()) {
+            return EMPTY;
+        }
+
+        // Actions whose time has already passed when the restart is scheduled are dropped.
+        return new Timeline(actions.stream()
+                .filter(action -> action.getOffset() <= seconds)
+                .sorted(Comparator.comparingLong(TimelineAction::getOffset).reversed())
+                .toArray(TimelineAction[]::new));
+    }
+
+    public long getFirstOffset() {
+        return actions.length == 0 ? -1L : actions[0].getOffset();
+    }
+
+    public boolean isDone() {
+        return actions.length <= next;
+    }
+
+    @NotNull
+    public List<TimelineAction> poll(long remaining) {
+        if (isDone() || actions[next].getOffset() < remaining) {
+            return List.of();
+        }
+
+        // More than one action is due at once after a stall or when they share an offset.
+        List<TimelineAction> due = new ArrayList<>();
+        while (next < actions.length && remaining <= actions[next].getOffset()) {
+            due.add(actions[next++]);
+        }
+
+        return due;
+    }
+}
@@ -0,0 +1,63 @@
+package net.okocraft.autorestart.tasks;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Locale;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+public final class TimelineAction {
+
+    private static final Pattern FORMAT = Pattern.compile("T-(\\d+)([smh]?)\\s*:\\s*(.+)", Pattern.CASE_INSENSITIVE);
+
+    private final long offset;
+    private final String command;
+
+    private TimelineAction(long offset, @NotNull String command) {
+        this.offset = offset;
+        this.command = command;
+    }
+
+    /**
+     * Parses an action such as {@code "T-300: backup start"} or {@code "T-5m: whitelist on"}.
+     * <p>
+     * The offset is in seconds before the restart unless it ends with {@code m} or {@code h}.
+     */
+    @NotNull
+    public static TimelineAction parse(@NotNull String line) throws IllegalArgumentException {
+        Matcher matcher = FORMAT.matcher(line.trim());
+
+        if (!matcher.matches()) {
+            throw new IllegalArgumentException("Expected 'T-<seconds>: <command>' but got: " + line);
+        }
+
+        long offset;
+        try {
+            offset = Long.parseLong(matcher.group(1));
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid number '" + matcher.group(1) + "' in: " + line);
+        }
+
+        switch (matcher.group(2).toLowerCase(Locale.ROOT)) {
+            case "m":
+                offset *= 60L;
+                break;
+            case "h":
+                offset *= 3600L;
+                break;
+            default:
+                break;
+        }
+
+        return new TimelineAction(offset, matcher.group(3).trim());
+    }
+
+    public long getOffset() {
+        return offset;
+    }
+
+    @NotNull
+    public String getCommand() {
+        return command;
+    }
+}
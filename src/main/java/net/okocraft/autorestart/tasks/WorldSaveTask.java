@@ -0,0 +1,175 @@
+package net.okocraft.autorestart.tasks;
+
+import net.okocraft.autorestart.AutoRestartPlugin;
+import org.bukkit.Chunk;
+import org.bukkit.Location;
+import org.bukkit.World;
+import org.bukkit.entity.Player;
+import org.bukkit.scheduler.BukkitRunnable;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.ArrayDeque;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+public class WorldSaveTask extends BukkitRunnable {
+
+    private final AutoRestartPlugin plugin;
+    private final long nanosPerTick;
+    private final int viewDistance;
+    private final Map<World, Boolean> autoSave = new LinkedHashMap<>();
+    private final Deque<World> worldsToSave = new ArrayDeque<>();
+    private final Deque<Chunk> chunksToUnload = new ArrayDeque<>();
+
+    private boolean started;
+    private boolean finished;
+    private boolean unloadRequested;
+    private boolean chunksQueued;
+    private long saveStart;
+    private int unloadedChunks;
+
+    public WorldSaveTask(@NotNull AutoRestartPlugin plugin) {
+        this.plugin = plugin;
+        this.nanosPerTick = TimeUnit.MILLISECONDS.toNanos(plugin.getGeneralConfig().getSettings().getWorldSaveMillisPerTick());
+        this.viewDistance = plugin.getServer().getViewDistance();
+    }
+
+    public void start() {
+        for (World world : plugin.getServer().getWorlds()) {
+            autoSave.put(world, world.isAutoSave());
+            // Autosave would flush the same chunks again on its own schedule and stall a tick.
+            world.setAutoSave(false);
+            worldsToSave.add(world);
+        }
+
+        saveStart = plugin.getTaskScheduler().nanoTime();
+        started = true;
+        runTaskTimer(plugin, 1L, 1L);
+    }
+
+    public void startUnloading() {
+        unloadRequested = true;
+    }
+
+    public boolean isUnloading() {
+        return unloadRequested;
+    }
+
+    public void stop(boolean restoreAutoSave) {
+        if (started && !finished) {
+            finished = true;
+            cancel();
+        }
+
+        if (restoreAutoSave) {
+            autoSave.forEach(World::setAutoSave);
+            autoSave.clear();
+        }
+    }
+
+    @Override
+    public void run() {
+        long start = plugin.getTaskScheduler().nanoTime();
+
+        // A single world save cannot be split, so the budget only decides whether the next one
+        // still fits into this tick. At least one world is saved per tick.
+        while (!worldsToSave.isEmpty()) {
+            World world = worldsToSave.poll();
+            long worldStart = plugin.getTaskScheduler().nanoTime();
+
+            world.save();
+
+            plugin.getLogger().info("Saved world " + world.getName() + " in " + toMillis(plugin.getTaskScheduler().nanoTime() - worldStart) + "ms.");
+
+            if (worldsToSave.isEmpty()) {
+                plugin.getLogger().info("Saved all worlds in " + toMillis(plugin.getTaskScheduler().nanoTime() - saveStart) + "ms.");
+            }
+
+            if (nanosPerTick <= plugin.getTaskScheduler().nanoTime() - start) {
+                return;
+            }
+        }
+
+        if (!unloadRequested) {
+            return;
+        }
+
+        if (!chunksQueued) {
+            for (World world : autoSave.keySet()) {
+                Collections.addAll(chunksToUnload, world.getLoadedChunks());
+            }
+
+            chunksQueued = true;
+            return;
+        }
+
+        Map<World, Set<Long>> nearPlayers = collectChunksNearPlayers();
+
+        while (!chunksToUnload.isEmpty() && plugin.getTaskScheduler().nanoTime() - start < nanosPerTick) {
+            Chunk chunk = chunksToUnload.poll();
+
+            if (chunk.isLoaded() && !chunk.isForceLoaded() && !isNearPlayer(chunk, nearPlayers) && chunk.unload(true)) {
+                unloadedChunks++;
+            }
+        }
+
+        if (chunksToUnload.isEmpty()) {
+            plugin.getLogger().info("Unloaded " + unloadedChunks + " chunks with no players nearby.");
+            // Autosave stays disabled until the restart, or until stop(true) if the restart is cancelled.
+            finished = true;
+            cancel();
+        }
+    }
+
+    @NotNull
+    private Map<World, Set<Long>> collectChunksNearPlayers() {
+        Map<World, Set<Long>> playerChunks = new HashMap<>();
+
+        for (Player player : plugin.getServer().getOnlinePlayers()) {
+            Location location = player.getLocation();
+            playerChunks.computeIfAbsent(location.getWorld(), world -> new HashSet<>())
+                    .add(pack(location.getBlockX() >> 4, location.getBlockZ() >> 4));
+        }
+
+        // Expanded once per tick, so each queued chunk is a single lookup however many players are online.
+        Map<World, Set<Long>> result = new HashMap<>();
+
+        playerChunks.forEach((world, chunks) -> {
+            Set<Long> near = new HashSet<>();
+
+            for (long packed : chunks) {
+                int x = (int) (packed >> 32);
+                int z = (int) packed;
+
+                for (int dx = -viewDistance; dx <= viewDistance; dx++) {
+                    for (int dz = -viewDistance; dz <= viewDistance; dz++) {
+                        near.add(pack(x + dx, z + dz));
+                    }
+                }
+            }
+
+            result.put(world, near);
+        });
+
+        return result;
+    }
+
+    private boolean isNearPlayer(@NotNull Chunk chunk, @NotNull Map<World, Set<Long>> nearPlayers) {
+        Set<Long> near = nearPlayers.get(chunk.getWorld());
+        return near != null && near.contains(pack(chunk.getX(), chunk.getZ()));
+    }
+
+    private static long pack(int x, int z) {
+        return (long) x << 32 | (z & 0xFFFFFFFFL);
+    }
+
+    private static long toMillis(long nanos) {
+        return TimeUnit.NANOSECONDS.toMillis(nanos);
+    }
+}
@@ -1,16 +1,30 @@
 package net.okocraft.autorestart.timer;
 
 import net.okocraft.autorestart.AutoRestartPlugin;
+import net.okocraft.autorestart.config.GeneralSettings;
+import net.okocraft.autorestart.display.DisplayChannel;
+import net.okocraft.autorestart.tasks.CountdownFrames;
 import org.bukkit.boss.BarColor;
 import org.bukkit.boss.BarStyle;
 import org.bukkit.boss.BossBar;
+import org.bukkit.entity.Player;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.event.player.PlayerJoinEvent;
+import org.bukkit.event.player.PlayerLocaleChangeEvent;
+import org.bukkit.event.player.PlayerQuitEvent;
 import org.jetbrains.annotations.NotNull;
 
-public class BossBarTimer {
+import java.util.HashMap;
+import java.util.Map;
+
+public class BossBarTimer implements DisplayChannel, Listener {
 
     private final AutoRestartPlugin plugin;
+    private final Map<String, BossBar> bars = new HashMap<>();
 
-    private BossBar bar;
+    private CountdownFrames frames;
     private long time;
     private long remaining;
 
@@ -18,7 +32,8 @@ public class BossBarTimer {
         this.plugin = plugin;
     }
 
-    public void start(long time) throws IllegalArgumentException, IllegalStateException {
+    @Override
+    public void start(@NotNull CountdownFrames frames, long time) throws IllegalArgumentException, IllegalStateException {
         if (time < 1) {
             throw new IllegalArgumentException("time must be 1 or more.");
         }
@@ -27,44 +42,137 @@ public class BossBarTimer {
             throw new IllegalStateException("BossBar timer is already running.");
         }
 
+        this.frames = frames;
         this.time = time;
         remaining = time;
-        bar = plugin.getServer().createBossBar(getTitle(), BarColor.RED, BarStyle.SEGMENTED_10);
-        bar.setVisible(true);
+
+        for (Player player : plugin.getServer().getOnlinePlayers()) {
+            addPlayer(player, player.getLocale());
+        }
     }
 
-    public void update() throws IllegalStateException {
+    @Override
+    public void update(long remaining) throws IllegalStateException {
         if (!isRunning()) {
             throw new IllegalStateException("BossBar timer is not running.");
         }
 
-        remaining--;
+        GeneralSettings settings = plugin.getGeneralConfig().getSettings();
+        long clamped = Math.max(0, Math.min(remaining, time));
+        boolean skipUnchanged = settings.isBossBarSkipUnchanged();
+
+        if (clamped == this.remaining && skipUnchanged) {
+            return;
+        }
+
+        if (clamped % settings.getBossBarInterval() != 0) {
+            return;
+        }
+
+        this.remaining = clamped;
+
+        double progress = getProgress();
+
+        // One bar per language, so each title is looked up once per second however many players see it.
+        for (Map.Entry<String, BossBar> entry : bars.entrySet()) {
+            BossBar bar = entry.getValue();
+            String title = frames.getBarTitle(entry.getKey(), clamped);
 
-        bar.setProgress((double) remaining / time);
-        bar.setTitle(getTitle());
+            if (!skipUnchanged) {
+                bar.setProgress(progress);
+                bar.setTitle(title);
+                continue;
+            }
 
-        plugin.getServer().getOnlinePlayers().forEach(bar::addPlayer);
+            if (bar.getProgress() != progress) {
+                bar.setProgress(progress);
+            }
+
+            if (!title.equals(bar.getTitle())) {
+                bar.setTitle(title);
+            }
+        }
+    }
+
+    @Override
+    public void refresh(@NotNull CountdownFrames frames) {
+        if (!isRunning()) {
+            return;
+        }
+
+        this.frames = frames;
+
+        for (Map.Entry<String, BossBar> entry : bars.entrySet()) {
+            entry.getValue().setTitle(frames.getBarTitle(entry.getKey(), remaining));
+        }
     }
 
+    @Override
     public void stop() throws IllegalStateException {
         if (!isRunning()) {
             throw new IllegalStateException("BossBar timer is not running.");
         }
 
-        bar.setVisible(false);
-        bar.removeAll();
-        bar = null;
+        for (BossBar bar : bars.values()) {
+            bar.setVisible(false);
+            bar.removeAll();
+        }
+
+        bars.clear();
+        frames = null;
 
         time = 0;
         remaining = 0;
     }
 
+    @Override
     public boolean isRunning() {
-        return bar != null;
+        return frames != null;
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onJoin(@NotNull PlayerJoinEvent event) {
+        if (isRunning()) {
+            addPlayer(event.getPlayer(), event.getPlayer().getLocale());
+        }
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onQuit(@NotNull PlayerQuitEvent event) {
+        if (isRunning()) {
+            removePlayer(event.getPlayer());
+        }
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onLocaleChange(@NotNull PlayerLocaleChangeEvent event) {
+        if (isRunning()) {
+            // The client sends its locale shortly after joining, so the first bar may be the default one.
+            removePlayer(event.getPlayer());
+            addPlayer(event.getPlayer(), event.getLocale());
+        }
+    }
+
+    private void addPlayer(@NotNull Player player, @NotNull String clientLocale) {
+        String locale = plugin.getMessageConfig().resolveLocale(clientLocale);
+        bars.computeIfAbsent(locale, this::createBar).addPlayer(player);
+    }
+
+    private void removePlayer(@NotNull Player player) {
+        for (BossBar bar : bars.values()) {
+            bar.removePlayer(player);
+        }
     }
 
     @NotNull
-    private String getTitle() {
-        return plugin.getMessageConfig().getCountdownBarTitle(remaining, plugin.getFormattedRestartReason());
+    private BossBar createBar(@NotNull String locale) {
+        BossBar bar = plugin.getServer().createBossBar(frames.getBarTitle(locale, remaining), BarColor.RED, BarStyle.SEGMENTED_10);
+        bar.setProgress(getProgress());
+        bar.setVisible(true);
+        return bar;
+    }
+
+    private double getProgress() {
+        return (double) remaining / time;
     }
 }
@@ -0,0 +1,170 @@
+package net.okocraft.autorestart.warmup;
+
+import net.okocraft.autorestart.AutoRestartPlugin;
+import net.okocraft.autorestart.config.GeneralSettings;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.HandlerList;
+import org.bukkit.event.Listener;
+import org.bukkit.event.player.AsyncPlayerPreLoginEvent;
+import org.bukkit.event.player.PlayerLoginEvent;
+import org.bukkit.scheduler.BukkitTask;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class LoginThrottle implements Listener, Runnable {
+
+    private static final String BYPASS_PERMISSION = "autorestart.warm-up.bypass";
+    private static final int TICKS_PER_SECOND = 20;
+
+    private final AutoRestartPlugin plugin;
+    private final Map<UUID, Long> pending = new ConcurrentHashMap<>();
+    private final AtomicInteger throttledCount = new AtomicInteger();
+
+    private volatile boolean active;
+    private BukkitTask task;
+    private long startedAt;
+    private long settledSince = -1L;
+
+    private double tokens;
+    private long lastRefill;
+
+    public LoginThrottle(@NotNull AutoRestartPlugin plugin) {
+        this.plugin = plugin;
+    }
+
+    public void start() {
+        stop();
+
+        GeneralSettings settings = plugin.getGeneralConfig().getSettings();
+
+        if (!settings.isWarmUpEnabled()) {
+            return;
+        }
+
+        synchronized (this) {
+            tokens = settings.getWarmUpBurst();
+            lastRefill = System.nanoTime();
+        }
+
+        startedAt = System.nanoTime();
+        settledSince = -1L;
+        throttledCount.set(0);
+        active = true;
+
+        plugin.getServer().getPluginManager().registerEvents(this, plugin);
+        task = plugin.getServer().getScheduler().runTaskTimer(plugin, this, TICKS_PER_SECOND, TICKS_PER_SECOND);
+
+        plugin.getLogger().info("Admitting " + settings.getWarmUpLoginsPerSecond()
+                + " logins per second while the server warms up.");
+    }
+
+    public void stop() {
+        if (task != null) {
+            task.cancel();
+            task = null;
+        }
+
+        if (active) {
+            active = false;
+            HandlerList.unregisterAll(this);
+        }
+
+        pending.clear();
+    }
+
+    public boolean isActive() {
+        return active;
+    }
+
+    @Override
+    public void run() {
+        GeneralSettings settings = plugin.getGeneralConfig().getSettings();
+        long now = System.nanoTime();
+
+        if (TimeUnit.SECONDS.toNanos(settings.getWarmUpTimeout()) <= now - startedAt) {
+            finish("timed out");
+            return;
+        }
+
+        // Ticks are at least 50ms apart, so this is the tick interval rather than the time spent in a tick.
+        if (plugin.getHealthMonitor().getRecentTickMillis(TICKS_PER_SECOND) <= settings.getWarmUpSettleMspt()) {
+            if (settledSince == -1L) {
+                settledSince = now;
+            }
+
+            if (TimeUnit.SECONDS.toNanos(settings.getWarmUpSettleTime()) <= now - settledSince) {
+                finish("tick time settled");
+            }
+        } else {
+            settledSince = -1L;
+        }
+    }
+
+    @EventHandler(priority = EventPriority.HIGHEST)
+    public void onPreLogin(@NotNull AsyncPlayerPreLoginEvent event) {
+        if (!active || event.getLoginResult() != AsyncPlayerPreLoginEvent.Result.ALLOWED) {
+            return;
+        }
+
+        // The verdict is only applied in onLogin, where the bypass permission can be checked.
+        pending.put(event.getUniqueId(), acquire());
+    }
+
+    @EventHandler(priority = EventPriority.HIGH)
+    public void onLogin(@NotNull PlayerLoginEvent event) {
+        Long wait = pending.remove(event.getPlayer().getUniqueId());
+
+        if (wait == null || !active) {
+            return;
+        }
+
+        // The pre-login event has no Player, so the permission can only be checked here.
+        if (event.getPlayer().hasPermission(BYPASS_PERMISSION)) {
+            if (wait == 0L) {
+                refund();
+            }
+            return;
+        }
+
+        if (wait == 0L || event.getResult() != PlayerLoginEvent.Result.ALLOWED) {
+            return;
+        }
+
+        throttledCount.incrementAndGet();
+        event.disallow(PlayerLoginEvent.Result.KICK_OTHER, plugin.getMessageConfig().getLoginThrottledMessage(wait));
+    }
+
+    private synchronized long acquire() {
+        GeneralSettings settings = plugin.getGeneralConfig().getSettings();
+        double rate = settings.getWarmUpLoginsPerSecond();
+        long now = System.nanoTime();
+
+        tokens = Math.min(settings.getWarmUpBurst(), tokens + rate * (now - lastRefill) / TimeUnit.SECONDS.toNanos(1));
+        lastRefill = now;
+
+        if (1.0 <= tokens) {
+            tokens -= 1.0;
+            return 0L;
+        }
+
+        return Math.max(1L, (long) Math.ceil((1.0 - tokens) / rate));
+    }
+
+    private synchronized void refund() {
+        tokens = Math.min(plugin.getGeneralConfig().getSettings().getWarmUpBurst(), tokens + 1.0);
+    }
+
+    private void finish(@NotNull String reason) {
+        long seconds = TimeUnit.NANOSECONDS.toSeconds(System.nanoTime() - startedAt);
+        stop();
+
+        plugin.getLogger().info("Warm-up finished after " + seconds + " seconds (" + reason + "), "
+                + throttledCount.get() + " logins were throttled.");
+    }
+}
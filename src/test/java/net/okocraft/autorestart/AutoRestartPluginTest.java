@@ -0,0 +1,252 @@
+package net.okocraft.autorestart;
+
+import net.okocraft.autorestart.lifecycle.RestartState;
+import org.bukkit.configuration.file.YamlConfiguration;
+import org.jetbrains.annotations.NotNull;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertIterableEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class AutoRestartPluginTest {
+
+    // A Monday.
+    private static final Instant ORIGIN = Instant.parse("2020-03-02T00:00:00Z");
+
+    @TempDir
+    Path dataFolder;
+
+    private final List<Simulation> simulations = new ArrayList<>();
+
+    @AfterEach
+    void tearDown() {
+        simulations.forEach(Simulation::stop);
+    }
+
+    @Test
+    void dailyRestartBroadcastsAndFiresOnTime() {
+        Simulation simulation = start(ORIGIN, Simulation.config("04:00"));
+        Instant restart = Instant.parse("2020-03-02T04:00:00Z");
+
+        assertEquals(RestartState.SCHEDULED, simulation.getPlugin().getLifecycle().getState());
+        assertEquals(restart, simulation.getPlugin().getRestartTime().toInstant());
+
+        simulation.skipTo(restart.minusSeconds(90));
+        simulation.run(Duration.ofSeconds(29));
+
+        assertEquals(RestartState.SCHEDULED, simulation.getPlugin().getLifecycle().getState());
+        assertTrue(simulation.getServer().getConsoleMessages().isEmpty());
+
+        simulation.run(Duration.ofSeconds(66));
+
+        List<StubServer.Sent> messages = simulation.getServer().getConsoleMessages();
+        long[] seconds = {60, 30, 10, 5, 4, 3, 2, 1};
+
+        assertEquals(seconds.length, messages.size(), messages.toString());
+
+        for (int i = 0; i < seconds.length; i++) {
+            assertEquals("Restarting in " + seconds[i] + "s", messages.get(i).getText());
+            assertOnTick(restart.minusSeconds(seconds[i]), messages.get(i).getTime());
+        }
+
+        assertRestartedAt(simulation, restart);
+    }
+
+    @Test
+    void weeklyRestartFiresDaysLater() {
+        Simulation simulation = start(ORIGIN, Simulation.config("0 4 * * SUN"));
+        Instant restart = Instant.parse("2020-03-08T04:00:00Z");
+
+        assertEquals(restart, simulation.getPlugin().getRestartTime().toInstant());
+
+        simulation.skipTo(restart.minus(Duration.ofMinutes(2)));
+        assertTrue(simulation.getServer().getCommands().isEmpty());
+
+        simulation.run(Duration.ofMinutes(3));
+        assertRestartedAt(simulation, restart);
+    }
+
+    @Test
+    void excludedWindowMovesRestartToTheNextDay() {
+        YamlConfiguration config = Simulation.config("04:00");
+        config.set("restart.auto.exclude", List.of("2020-03-02T03:00/2020-03-02T05:00"));
+
+        Simulation simulation = start(ORIGIN, config);
+        Instant restart = Instant.parse("2020-03-03T04:00:00Z");
+
+        assertEquals(restart, simulation.getPlugin().getRestartTime().toInstant());
+
+        simulation.skipTo(restart.minus(Duration.ofMinutes(2)));
+        assertTrue(simulation.getServer().getCommands().isEmpty());
+
+        simulation.run(Duration.ofMinutes(3));
+        assertRestartedAt(simulation, restart);
+    }
+
+    @Test
+    void cancelStopsTheCountdown() {
+        Simulation simulation = start(ORIGIN, Simulation.config());
+        AutoRestartPlugin plugin = simulation.getPlugin();
+
+        assertNull(plugin.getRestartTime());
+
+        plugin.scheduleRestarting(120, "Maintenance");
+        simulation.run(Duration.ofSeconds(30));
+
+        assertEquals(RestartState.COUNTDOWN, plugin.getLifecycle().getState());
+        assertTrue(Files.exists(getScheduleFile()));
+
+        plugin.cancelRestarting();
+        simulation.run(Duration.ofSeconds(120));
+
+        assertEquals(RestartState.IDLE, plugin.getLifecycle().getState());
+        assertTrue(simulation.getServer().getConsoleMessages().isEmpty());
+        assertTrue(simulation.getServer().getCommands().isEmpty());
+        assertFalse(Files.exists(getScheduleFile()));
+    }
+
+    @Test
+    void failedRestartCommandDropsTheRestart() {
+        Simulation simulation = start(ORIGIN, Simulation.config());
+        simulation.getServer().failCommand("restart");
+
+        simulation.getPlugin().scheduleRestarting(10, "Maintenance");
+        simulation.run(Duration.ofSeconds(12));
+
+        assertEquals(1, simulation.getServer().getCommands().size());
+        assertEquals(RestartState.IDLE, simulation.getPlugin().getLifecycle().getState());
+        assertFalse(Files.exists(dataFolder.resolve("restart.marker")));
+        assertFalse(Files.exists(getScheduleFile()));
+    }
+
+    @Test
+    void commandsBeforeRestartGiveUpAtTheTimeout() {
+        YamlConfiguration config = Simulation.config();
+        config.set("restart.commands-before", List.of("[delay=100000] save-all"));
+        config.set("restart.commands-before-timeout", 5);
+
+        Simulation simulation = start(ORIGIN, config);
+        Instant restart = ORIGIN.plusSeconds(10);
+
+        simulation.getPlugin().scheduleRestarting(10, "Maintenance");
+        simulation.run(Duration.ofSeconds(14));
+
+        assertTrue(simulation.getServer().getCommands().isEmpty());
+        assertEquals(RestartState.PRE_COMMANDS, simulation.getPlugin().getLifecycle().getState());
+
+        simulation.run(Duration.ofSeconds(2));
+        assertRestartedAt(simulation, restart.plusSeconds(5));
+    }
+
+    @Test
+    void commandRestartIsRestoredAfterAServerRestart() {
+        Simulation first = start(ORIGIN, Simulation.config());
+        Instant restart = ORIGIN.plusSeconds(600);
+
+        first.getPlugin().scheduleRestarting(600, "Maintenance");
+        first.run(Duration.ofSeconds(1));
+        first.stop();
+
+        Simulation second = start(ORIGIN.plusSeconds(120), Simulation.config());
+
+        assertEquals(restart, second.getPlugin().getRestartTime().toInstant());
+
+        second.skipTo(restart.minusSeconds(90));
+        second.run(Duration.ofSeconds(95));
+        assertRestartedAt(second, restart);
+    }
+
+    @Test
+    void triggeredRestartIsNotRestored() {
+        Simulation first = start(ORIGIN, Simulation.config());
+
+        first.getPlugin().scheduleTriggeredRestart(60, "Low TPS");
+        first.run(Duration.ofSeconds(1));
+
+        assertEquals(RestartState.COUNTDOWN, first.getPlugin().getLifecycle().getState());
+        first.stop();
+
+        Simulation second = start(ORIGIN.plusSeconds(30), Simulation.config());
+
+        assertNull(second.getPlugin().getRestartTime());
+        assertFalse(Files.exists(getScheduleFile()));
+    }
+
+    @Test
+    void reloadMovesTheAutoRestart() {
+        Simulation simulation = start(ORIGIN, Simulation.config("04:00"));
+        Instant restart = Instant.parse("2020-03-02T06:00:00Z");
+
+        simulation.writeConfig(Simulation.config("06:00"));
+        simulation.getPlugin().reload();
+
+        assertEquals(restart, simulation.getPlugin().getRestartTime().toInstant());
+
+        simulation.skipTo(Instant.parse("2020-03-02T03:58:00Z"));
+        simulation.run(Duration.ofMinutes(3));
+        assertTrue(simulation.getServer().getCommands().isEmpty());
+
+        simulation.skipTo(restart.minus(Duration.ofMinutes(2)));
+        simulation.run(Duration.ofMinutes(3));
+        assertRestartedAt(simulation, restart);
+    }
+
+    @Test
+    void reloadKeepsTheScheduleWhenConfigIsBroken() throws IOException {
+        Simulation simulation = start(ORIGIN, Simulation.config("04:00"));
+        Instant restart = Instant.parse("2020-03-02T04:00:00Z");
+
+        Files.writeString(simulation.getDataFolder().resolve("config.yml"), "restart: [", StandardCharsets.UTF_8);
+        simulation.getPlugin().reload();
+
+        assertEquals(RestartState.SCHEDULED, simulation.getPlugin().getLifecycle().getState());
+        assertEquals(restart, simulation.getPlugin().getRestartTime().toInstant());
+    }
+
+    @NotNull
+    private Simulation start(@NotNull Instant origin, @NotNull YamlConfiguration config) {
+        Simulation simulation = new Simulation(dataFolder, origin);
+        simulation.writeConfig(config);
+        simulation.writeMessages(Simulation.messages());
+        simulation.start();
+
+        simulations.add(simulation);
+        return simulation;
+    }
+
+    @NotNull
+    private Path getScheduleFile() {
+        return dataFolder.resolve("schedule.properties");
+    }
+
+    private static void assertRestartedAt(@NotNull Simulation simulation, @NotNull Instant expected) {
+        List<StubServer.Sent> commands = simulation.getServer().getCommands();
+
+        assertIterableEquals(List.of("restart"),
+                commands.stream().map(StubServer.Sent::getText).collect(Collectors.toList()));
+        assertOnTick(expected, commands.get(0).getTime());
+        assertEquals(RestartState.RESTARTING, simulation.getPlugin().getLifecycle().getState());
+    }
+
+    private static void assertOnTick(@NotNull Instant expected, @NotNull Instant actual) {
+        // Main thread work can only happen on a tick, so it may run up to one tick after the exact time.
+        Duration late = Duration.between(expected, actual);
+        assertTrue(!late.isNegative() && late.compareTo(Simulation.TICK) <= 0,
+                "expected " + expected + " but was " + actual);
+    }
+}
@@ -0,0 +1,158 @@
+package net.okocraft.autorestart;
+
+import net.okocraft.autorestart.scheduler.TaskScheduler;
+import net.okocraft.autorestart.scheduler.VirtualTaskScheduler;
+import org.bukkit.configuration.file.YamlConfiguration;
+import org.bukkit.plugin.PluginDescriptionFile;
+import org.bukkit.plugin.java.JavaPluginLoader;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.List;
+
+/**
+ * Runs the plugin on a {@link StubServer} whose main thread ticks along with a {@link VirtualTaskScheduler},
+ * so that days of schedules take milliseconds and every time seen by the plugin is exact.
+ * The benchmarks start the plugin through it as well.
+ */
+public final class Simulation {
+
+    static final Duration TICK = Duration.ofMillis(50);
+
+    private final Path dataFolder;
+    private final VirtualTaskScheduler scheduler;
+    private final StubServer server;
+    private final TestPlugin plugin;
+
+    public Simulation(@NotNull Path dataFolder, @NotNull Instant origin) {
+        this.dataFolder = dataFolder;
+        this.scheduler = new VirtualTaskScheduler(origin, ZoneOffset.UTC);
+        this.server = new StubServer(scheduler.getClock());
+
+        StubServer.install(server);
+
+        @SuppressWarnings("deprecation")
+        JavaPluginLoader loader = new JavaPluginLoader(server.getServer());
+        PluginDescriptionFile description =
+                new PluginDescriptionFile("AutoRestart", "test", AutoRestartPlugin.class.getName());
+
+        this.plugin = new TestPlugin(loader, description, dataFolder.toFile(),
+                dataFolder.resolve("AutoRestart.jar").toFile(), scheduler);
+    }
+
+    /**
+     * Returns a config with the auto restart at the given times in UTC and hot reload turned off,
+     * everything else is left to the defaults in the code.
+     */
+    @NotNull
+    public static YamlConfiguration config(@NotNull String... times) {
+        YamlConfiguration config = new YamlConfiguration();
+        config.set("restart.auto.time", List.of(times));
+        config.set("restart.auto.zone", "UTC");
+        config.set("restart.hot-reload.enabled", false);
+        return config;
+    }
+
+    @NotNull
+    static YamlConfiguration messages() {
+        YamlConfiguration messages = new YamlConfiguration();
+        messages.set("prefix", "");
+        messages.set("restart.countdown.message", "Restarting in %time%s");
+        return messages;
+    }
+
+    public void writeConfig(@NotNull YamlConfiguration config) {
+        save(config, "config.yml");
+    }
+
+    public void writeMessages(@NotNull YamlConfiguration messages) {
+        save(messages, "message.yml");
+    }
+
+    public void start() {
+        plugin.onLoad();
+        plugin.enable();
+    }
+
+    public void stop() {
+        if (plugin.isEnabled()) {
+            plugin.disable();
+        }
+    }
+
+    /**
+     * Moves the time forward tick by tick, running the main thread after each one.
+     */
+    void run(@NotNull Duration duration) {
+        for (long ticks = duration.toNanos() / TICK.toNanos(); 0 < ticks; ticks--) {
+            scheduler.advance(TICK);
+            server.tick();
+        }
+    }
+
+    /**
+     * Moves the time forward at once with a single tick at the end.
+     * Only for stretches in which nothing needs the main thread, such as before a countdown starts.
+     */
+    public void skip(@NotNull Duration duration) {
+        scheduler.advance(duration);
+        server.tick();
+    }
+
+    /**
+     * Moves the time forward to the given instant with {@link #skip(Duration)}.
+     */
+    void skipTo(@NotNull Instant time) {
+        skip(Duration.between(now(), time));
+    }
+
+    @NotNull
+    Instant now() {
+        return scheduler.getClock().instant();
+    }
+
+    @NotNull
+    Path getDataFolder() {
+        return dataFolder;
+    }
+
+    @NotNull
+    public AutoRestartPlugin getPlugin() {
+        return plugin;
+    }
+
+    @NotNull
+    public StubServer getServer() {
+        return server;
+    }
+
+    private void save(@NotNull YamlConfiguration yaml, @NotNull String fileName) {
+        try {
+            yaml.save(dataFolder.resolve(fileName).toFile());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static final class TestPlugin extends AutoRestartPlugin {
+
+        private TestPlugin(@NotNull JavaPluginLoader loader, @NotNull PluginDescriptionFile description,
+                           @NotNull File dataFolder, @NotNull File file, @NotNull TaskScheduler scheduler) {
+            super(loader, description, dataFolder, file, scheduler);
+        }
+
+        private void enable() {
+            setEnabled(true);
+        }
+
+        private void disable() {
+            setEnabled(false);
+        }
+    }
+}
@@ -0,0 +1,360 @@
+package net.okocraft.autorestart;
+
+import org.bukkit.Bukkit;
+import org.bukkit.Server;
+import org.bukkit.boss.BossBar;
+import org.bukkit.command.ConsoleCommandSender;
+import org.bukkit.entity.Player;
+import org.bukkit.plugin.PluginManager;
+import org.bukkit.scheduler.BukkitScheduler;
+import org.bukkit.scheduler.BukkitTask;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.nio.charset.StandardCharsets;
+import java.time.Clock;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.logging.Logger;
+
+/**
+ * A {@link Server} with just enough behaviour for the plugin: main thread tasks run when {@link #tick()}
+ * is called, and dispatched commands and console messages are recorded with the time they were sent.
+ */
+public final class StubServer {
+
+    private static final Object UNHANDLED = new Object();
+
+    private static volatile StubServer current;
+
+    private final Clock clock;
+    private final Logger logger = Logger.getLogger("StubServer");
+    private final List<Player> players = new ArrayList<>();
+    private final List<Sent> commands = new ArrayList<>();
+    private final Set<String> failingCommands = new HashSet<>();
+    private final List<Sent> consoleMessages = new ArrayList<>();
+    private final List<Task> tasks = new ArrayList<>();
+    private final ConsoleCommandSender console;
+    private final BukkitScheduler scheduler;
+    private final PluginManager pluginManager;
+    private final Server server;
+
+    private long currentTick;
+    private int nextTaskId = 1;
+    private boolean recording = true;
+
+    StubServer(@NotNull Clock clock) {
+        this.clock = clock;
+        this.console = proxy(ConsoleCommandSender.class, this::handleConsole);
+        this.scheduler = proxy(BukkitScheduler.class, this::handleScheduler);
+        this.pluginManager = proxy(PluginManager.class, (method, args) -> UNHANDLED);
+        this.server = proxy(Server.class, this::handleServer);
+    }
+
+    /**
+     * Makes this server the one behind {@link Bukkit}, which can only be set once per JVM.
+     */
+    static void install(@NotNull StubServer server) {
+        current = server;
+
+        if (Bukkit.getServer() == null) {
+            Bukkit.setServer(proxy(Server.class, (method, args) -> invoke(method, current.server, args)));
+        }
+    }
+
+    @NotNull
+    Server getServer() {
+        return server;
+    }
+
+    @NotNull
+    List<Sent> getCommands() {
+        return commands;
+    }
+
+    @NotNull
+    List<Sent> getConsoleMessages() {
+        return consoleMessages;
+    }
+
+    /**
+     * Adds an online player who ignores every message sent to them.
+     */
+    public void addPlayer(@NotNull String locale) {
+        String name = "Player" + (players.size() + 1);
+        UUID uuid = UUID.nameUUIDFromBytes(name.getBytes(StandardCharsets.UTF_8));
+
+        players.add(proxy(Player.class, (method, args) -> {
+            switch (method.getName()) {
+                case "getName":
+                case "getDisplayName":
+                    return name;
+                case "getUniqueId":
+                    return uuid;
+                case "getLocale":
+                    return locale;
+                case "isOnline":
+                    return true;
+                default:
+                    return UNHANDLED;
+            }
+        }));
+    }
+
+    /**
+     * Makes the given command fail as if it did not exist. It is still recorded.
+     */
+    public void failCommand(@NotNull String command) {
+        failingCommands.add(command);
+    }
+
+    /**
+     * Stops recording commands and console messages, for benchmarks that send millions of them.
+     */
+    public void stopRecording() {
+        recording = false;
+    }
+
+    /**
+     * Runs the tasks that are due on this tick. Tasks scheduled while ticking run on a later tick.
+     */
+    void tick() {
+        currentTick++;
+
+        List<Task> due = new ArrayList<>();
+        for (Task task : tasks) {
+            if (!task.cancelled && task.nextTick <= currentTick) {
+                due.add(task);
+            }
+        }
+
+        for (Task task : due) {
+            if (task.cancelled) {
+                continue;
+            }
+
+            if (0 < task.period) {
+                task.nextTick += task.period;
+            } else {
+                task.cancelled = true;
+            }
+
+            task.runnable.run();
+        }
+
+        tasks.removeIf(task -> task.cancelled);
+    }
+
+    @Nullable
+    private Object handleServer(@NotNull Method method, @Nullable Object[] args) {
+        switch (method.getName()) {
+            case "getLogger":
+                return logger;
+            case "getName":
+                return "StubServer";
+            case "getVersion":
+            case "getBukkitVersion":
+                return "test";
+            case "getScheduler":
+                return scheduler;
+            case "getPluginManager":
+                return pluginManager;
+            case "getConsoleSender":
+                return console;
+            case "getOnlinePlayers":
+                return List.copyOf(players);
+            case "isPrimaryThread":
+                return true;
+            case "getPort":
+                return 25565;
+            case "dispatchCommand":
+                record(commands, (String) args[1]);
+                return !failingCommands.contains(args[1]);
+            case "broadcastMessage":
+                record(consoleMessages, (String) args[0]);
+                return players.size();
+            case "createBossBar":
+                return proxy(BossBar.class, (m, a) -> UNHANDLED);
+            default:
+                return UNHANDLED;
+        }
+    }
+
+    @Nullable
+    private Object handleConsole(@NotNull Method method, @Nullable Object[] args) {
+        switch (method.getName()) {
+            case "sendMessage":
+                if (args[0] instanceof String) {
+                    record(consoleMessages, (String) args[0]);
+                }
+                return null;
+            case "getName":
+                return "CONSOLE";
+            case "hasPermission":
+            case "isOp":
+                return true;
+            default:
+                return UNHANDLED;
+        }
+    }
+
+    @Nullable
+    private Object handleScheduler(@NotNull Method method, @Nullable Object[] args) {
+        switch (method.getName()) {
+            case "runTask":
+            case "runTaskAsynchronously":
+                return schedule((Runnable) args[1], 0L, 0L);
+            case "runTaskLater":
+            case "runTaskLaterAsynchronously":
+                return schedule((Runnable) args[1], (long) args[2], 0L);
+            case "runTaskTimer":
+            case "runTaskTimerAsynchronously":
+                return schedule((Runnable) args[1], (long) args[2], Math.max(1L, (long) args[3]));
+            case "cancelTask":
+                int id = (int) args[0];
+                tasks.stream().filter(task -> task.id == id).forEach(task -> task.cancelled = true);
+                return null;
+            case "cancelTasks":
+                tasks.forEach(task -> task.cancelled = true);
+                return null;
+            default:
+                return UNHANDLED;
+        }
+    }
+
+    private void record(@NotNull List<Sent> sent, @NotNull String text) {
+        if (recording) {
+            sent.add(new Sent(clock.instant(), text));
+        }
+    }
+
+    @NotNull
+    private BukkitTask schedule(@NotNull Runnable runnable, long delay, long period) {
+        // Like the real scheduler, a delay of 0 still waits for the next tick.
+        Task task = new Task(nextTaskId++, runnable, currentTick + Math.max(1L, delay), period);
+        tasks.add(task);
+
+        return proxy(BukkitTask.class, (method, args) -> {
+            switch (method.getName()) {
+                case "cancel":
+                    task.cancelled = true;
+                    return null;
+                case "isCancelled":
+                    return task.cancelled;
+                case "getTaskId":
+                    return task.id;
+                case "isSync":
+                    return true;
+                default:
+                    return UNHANDLED;
+            }
+        });
+    }
+
+    @NotNull
+    private static <T> T proxy(@NotNull Class<T> type, @NotNull Handler handler) {
+        Object proxy = Proxy.newProxyInstance(StubServer.class.getClassLoader(), new Class<?>[]{type}, (self, method, args) -> {
+            switch (method.getName()) {
+                case "equals":
+                    return self == args[0];
+                case "hashCode":
+                    return System.identityHashCode(self);
+                case "toString":
+                    return type.getSimpleName() + "@" + Integer.toHexString(System.identityHashCode(self));
+                default:
+                    Object result = handler.handle(method, args);
+                    return result != UNHANDLED ? result : defaultValue(method.getReturnType());
+            }
+        });
+
+        return type.cast(proxy);
+    }
+
+    @Nullable
+    private static Object invoke(@NotNull Method method, @NotNull Object target, @Nullable Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+
+    @Nullable
+    private static Object defaultValue(@NotNull Class<?> type) {
+        if (type == boolean.class) {
+            return false;
+        } else if (type == int.class) {
+            return 0;
+        } else if (type == long.class) {
+            return 0L;
+        } else if (type == double.class) {
+            return 0.0;
+        } else if (type == float.class) {
+            return 0.0f;
+        } else if (type == List.class || type == Collection.class || type == Iterable.class) {
+            return List.of();
+        } else if (type == Set.class) {
+            return Set.of();
+        } else if (type == Map.class) {
+            return Map.of();
+        } else {
+            return null;
+        }
+    }
+
+    private interface Handler {
+        @Nullable
+        Object handle(@NotNull Method method, @Nullable Object[] args) throws Throwable;
+    }
+
+    private static final class Task {
+
+        private final int id;
+        private final Runnable runnable;
+        private final long period;
+        private long nextTick;
+        private boolean cancelled;
+
+        private Task(int id, @NotNull Runnable runnable, long nextTick, long period) {
+            this.id = id;
+            this.runnable = runnable;
+            this.nextTick = nextTick;
+            this.period = period;
+        }
+    }
+
+    static final class Sent {
+
+        private final Instant time;
+        private final String text;
+
+        private Sent(@NotNull Instant time, @NotNull String text) {
+            this.time = time;
+            this.text = text;
+        }
+
+        @NotNull
+        Instant getTime() {
+            return time;
+        }
+
+        @NotNull
+        String getText() {
+            return text;
+        }
+
+        @Override
+        public String toString() {
+            return time + " " + text;
+        }
+    }
+}
@@ -0,0 +1,237 @@
+package net.okocraft.autorestart.scheduler;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.util.PriorityQueue;
+import java.util.concurrent.Delayed;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A deterministic scheduler whose time only moves when {@link #advance(Duration)} is called.
+ * Tasks run on the calling thread in time order, so days of schedules can be simulated instantly.
+ * A task that throws is not run again, and its exception is thrown from {@link #advance(Duration)}.
+ */
+public class VirtualTaskScheduler implements TaskScheduler {
+
+    private final PriorityQueue<VirtualTask> queue = new PriorityQueue<>();
+    private final Instant origin;
+    private final Clock clock;
+
+    private long nanoTime;
+    private long sequence;
+    private boolean shutdown;
+    private RuntimeException failure;
+
+    public VirtualTaskScheduler(@NotNull Instant origin, @NotNull ZoneId zone) {
+        this.origin = origin;
+        this.clock = new VirtualClock(zone);
+    }
+
+    public synchronized void advance(@NotNull Duration duration) {
+        long target = nanoTime + duration.toNanos();
+
+        VirtualTask task;
+        while ((task = pollDue(target)) != null) {
+            nanoTime = task.time;
+            task.run();
+        }
+
+        nanoTime = target;
+
+        if (failure != null) {
+            RuntimeException thrown = failure;
+            failure = null;
+            throw thrown;
+        }
+    }
+
+    public synchronized int getPendingTasks() {
+        return queue.size();
+    }
+
+    @Override
+    public synchronized long nanoTime() {
+        return nanoTime;
+    }
+
+    @Override
+    @NotNull
+    public Clock getClock() {
+        return clock;
+    }
+
+    @Override
+    @NotNull
+    public synchronized ScheduledFuture<?> schedule(@NotNull Runnable task, long delay, @NotNull TimeUnit unit) {
+        return enqueue(new VirtualTask(task, nanoTime + Math.max(0, unit.toNanos(delay)), 0L));
+    }
+
+    @Override
+    @NotNull
+    public synchronized ScheduledFuture<?> scheduleAtFixedRate(@NotNull Runnable task, long initialDelay, long period,
+                                                               @NotNull TimeUnit unit) {
+        if (period <= 0) {
+            throw new IllegalArgumentException("period must be positive.");
+        }
+
+        return enqueue(new VirtualTask(task, nanoTime + Math.max(0, unit.toNanos(initialDelay)), unit.toNanos(period)));
+    }
+
+    @Override
+    public synchronized void shutdown() {
+        shutdown = true;
+        queue.forEach(task -> task.cancelled = true);
+        queue.clear();
+    }
+
+    @Override
+    public synchronized boolean isShutdown() {
+        return shutdown;
+    }
+
+    @NotNull
+    private VirtualTask enqueue(@NotNull VirtualTask task) {
+        if (shutdown) {
+            throw new IllegalStateException("Scheduler is shut down.");
+        }
+
+        task.sequence = sequence++;
+        queue.add(task);
+        return task;
+    }
+
+    private VirtualTask pollDue(long target) {
+        VirtualTask task = queue.peek();
+
+        while (task != null && task.cancelled) {
+            queue.poll();
+            task = queue.peek();
+        }
+
+        return task != null && task.time <= target ? queue.poll() : null;
+    }
+
+    private final class VirtualTask implements ScheduledFuture<Object> {
+
+        private final Runnable task;
+        private final long period;
+        private long time;
+        private long sequence;
+        private boolean cancelled;
+        private boolean done;
+
+        private VirtualTask(@NotNull Runnable task, long time, long period) {
+            this.task = task;
+            this.time = time;
+            this.period = period;
+        }
+
+        private void run() {
+            try {
+                task.run();
+            } catch (RuntimeException e) {
+                // Like ScheduledThreadPoolExecutor, a failing task is not run again.
+                // The time still moves to the target so that the other due tasks run as usual.
+                done = true;
+
+                if (failure == null) {
+                    failure = e;
+                } else {
+                    failure.addSuppressed(e);
+                }
+                return;
+            }
+
+            if (period == 0L) {
+                done = true;
+            } else if (!cancelled && !shutdown) {
+                time += period;
+                enqueue(this);
+            }
+        }
+
+        @Override
+        public long getDelay(@NotNull TimeUnit unit) {
+            synchronized (VirtualTaskScheduler.this) {
+                return unit.convert(time - nanoTime, TimeUnit.NANOSECONDS);
+            }
+        }
+
+        @Override
+        public int compareTo(@NotNull Delayed other) {
+            if (other instanceof VirtualTask) {
+                VirtualTask task = (VirtualTask) other;
+                int compared = Long.compare(time, task.time);
+                return compared != 0 ? compared : Long.compare(sequence, task.sequence);
+            } else {
+                return Long.compare(getDelay(TimeUnit.NANOSECONDS), other.getDelay(TimeUnit.NANOSECONDS));
+            }
+        }
+
+        @Override
+        public boolean cancel(boolean mayInterruptIfRunning) {
+            synchronized (VirtualTaskScheduler.this) {
+                if (done || cancelled) {
+                    return false;
+                }
+
+                cancelled = true;
+                queue.remove(this);
+                return true;
+            }
+        }
+
+        @Override
+        public boolean isCancelled() {
+            synchronized (VirtualTaskScheduler.this) {
+                return cancelled;
+            }
+        }
+
+        @Override
+        public boolean isDone() {
+            synchronized (VirtualTaskScheduler.this) {
+                return done || cancelled;
+            }
+        }
+
+        @Override
+        public Object get() {
+            return null;
+        }
+
+        @Override
+        public Object get(long timeout, @NotNull TimeUnit unit) {
+            return null;
+        }
+    }
+
+    private final class VirtualClock extends Clock {
+
+        private final ZoneId zone;
+
+        private VirtualClock(@NotNull ZoneId zone) {
+            this.zone = zone;
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return zone;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return new VirtualClock(zone);
+        }
+
+        @Override
+        public Instant instant() {
+            return origin.plusNanos(nanoTime());
+        }
+    }
+}